@@ -52,12 +52,20 @@ public abstract class AbstractAppendingJavaTextJsonHandler<ActualAppendable exte
 
 	private final Indentation indentation;
 
+	private final IndentationBuffer indentationBuffer;
+
+	private final DoubleFormat doubleFormat;
+
+	private final char[] doubleBuffer;
+
 	private int depth;
 
 	private boolean indented = true;
 
 	private boolean empty;
 
+	private Appendable target;
+
 	/**
 	 * Creates a new {@link AbstractAppendingJavaTextJsonHandler}.
 	 * 
@@ -67,14 +75,37 @@ public abstract class AbstractAppendingJavaTextJsonHandler<ActualAppendable exte
 	 *            The {@link Indentation} to be used.
 	 */
 	public AbstractAppendingJavaTextJsonHandler(ActualAppendable appendable, Indentation indentation) {
+		this(appendable, indentation, DoubleFormat.SHORTEST);
+	}
+
+	/**
+	 * Creates a new {@link AbstractAppendingJavaTextJsonHandler}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * @since 2.1.0
+	 */
+	public AbstractAppendingJavaTextJsonHandler(ActualAppendable appendable, Indentation indentation,
+			DoubleFormat doubleFormat) {
 		if (null == appendable) {
 			throw new IllegalArgumentException("The given appendable is null");
 		}
 		if (null == indentation) {
 			throw new IllegalArgumentException("The given indentation is null");
 		}
+		if (null == doubleFormat) {
+			throw new IllegalArgumentException("The given double format is null");
+		}
 		this.appendable = appendable;
 		this.indentation = indentation;
+		this.indentationBuffer = new IndentationBuffer(indentation);
+		this.target = appendable;
+		this.doubleFormat = doubleFormat;
+		this.doubleBuffer = doubleFormat.isShortest() ? null : new char[DoubleFormat.MAXIMUM_LENGTH];
 	}
 
 	/**
@@ -89,12 +120,36 @@ public abstract class AbstractAppendingJavaTextJsonHandler<ActualAppendable exte
 		return appendable;
 	}
 
+	/**
+	 * Returns the {@link DoubleFormat} this
+	 * {@link AbstractAppendingJavaTextJsonHandler} formats double values with.
+	 * 
+	 * @return The {@link DoubleFormat} this
+	 *         {@link AbstractAppendingJavaTextJsonHandler} formats double
+	 *         values with.
+	 * @since 2.1.0
+	 */
+	public final DoubleFormat getDoubleFormat() {
+		return doubleFormat;
+	}
+
 	@Override
 	public final void onDocumentBegin() {
 	}
 
 	@Override
-	public final void onDocumentEnd() {
+	public final void onDocumentEnd() throws JsonException {
+		endDocument();
+	}
+
+	/**
+	 * Called when the handled JSON document ends. Does nothing by default.
+	 * 
+	 * @throws JsonException
+	 *             If the end of the JSON document couldn't be handled.
+	 * @since 2.1.0
+	 */
+	protected void endDocument() throws JsonException {
 	}
 
 	@Override
@@ -136,10 +191,7 @@ public abstract class AbstractAppendingJavaTextJsonHandler<ActualAppendable exte
 	@Override
 	public final void onName(String name) throws JsonIndexException, JsonException {
 		checkName(name);
-		append(indentation.get(depth, true));
-		indented = true;
-		append(name);
-		append("=");
+		handleName(name);
 	}
 
 	@Override
@@ -166,37 +218,453 @@ public abstract class AbstractAppendingJavaTextJsonHandler<ActualAppendable exte
 	@Override
 	public final void onLong(long value) throws JsonException {
 		writeIndentation();
-		append(Long.toString(value));
+		append(JsonNumbers.toString(value));
 	}
 
 	@Override
 	public final void onDouble(double value) throws JsonValueException, JsonException {
 		checkDouble(value);
+		handleDouble(value);
+	}
+
+	/**
+	 * Appends the given number literal unchanged. This allows to append
+	 * numbers that can't be represented as a long or a double without a loss
+	 * of precision (e.g. the result of {@link java.math.BigDecimal#toString()})
+	 * and numbers that have been copied from another JSON text, without parsing
+	 * and formatting them.
+	 * 
+	 * @param literal
+	 *            The number literal to be appended.
+	 * @throws JsonValueException
+	 *             If the given number literal is {@literal null} or not a
+	 *             valid JSON number literal.
+	 * @throws JsonException
+	 *             If the number literal couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onNumber(CharSequence literal) throws JsonValueException, JsonException {
+		if (null == literal) {
+			throw new JsonValueException("The given literal is null");
+		}
+		if (!JsonNumbers.isLiteral(literal)) {
+			throw new JsonValueException("The given literal is not a number: " + literal);
+		}
 		writeIndentation();
-		append(Double.toString(value));
+		append(literal);
 	}
 
 	@Override
 	public final void onString(String value) throws JsonValueException, JsonException {
 		checkString(value);
+		handleString(value);
+	}
+
+	/**
+	 * Appends the given name. Behaves like {@link #onName(String)}, but
+	 * accepts any {@link CharSequence} (e.g. a reused {@link StringBuilder}),
+	 * without the need to create a {@link String}.
+	 * 
+	 * @param name
+	 *            The name to be appended.
+	 * @throws JsonIndexException
+	 *             If the given name is {@literal null}.
+	 * @throws JsonException
+	 *             If the name couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onName(CharSequence name) throws JsonIndexException, JsonException {
+		checkName(name);
+		handleName(name);
+	}
+
+	/**
+	 * Appends the given range of the given array of characters as a name.
+	 * Behaves like {@link #onName(String)}, without the need to create a
+	 * {@link String}.
+	 * 
+	 * @param name
+	 *            The array of characters that contains the name.
+	 * @param offset
+	 *            The index of the first character of the name.
+	 * @param length
+	 *            The number of characters of the name.
+	 * @throws JsonIndexException
+	 *             If the given array of characters is {@literal null} or if
+	 *             the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the name couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onName(char[] name, int offset, int length) throws JsonIndexException, JsonException {
+		checkName(name, offset, length);
+		beginName();
+		append(name, offset, length);
+		append("=");
+	}
+
+	/**
+	 * Appends the given string value. Behaves like {@link #onString(String)},
+	 * but accepts any {@link CharSequence} (e.g. a reused
+	 * {@link StringBuilder}), without the need to create a {@link String}.
+	 * 
+	 * @param value
+	 *            The string value to be appended.
+	 * @throws JsonValueException
+	 *             If the given string value is {@literal null}.
+	 * @throws JsonException
+	 *             If the string value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onString(CharSequence value) throws JsonValueException, JsonException {
+		checkString(value);
+		handleString(value);
+	}
+
+	/**
+	 * Appends the given range of the given array of characters as a string
+	 * value. Behaves like {@link #onString(String)}, without the need to
+	 * create a {@link String}.
+	 * 
+	 * @param value
+	 *            The array of characters that contains the string value.
+	 * @param offset
+	 *            The index of the first character of the string value.
+	 * @param length
+	 *            The number of characters of the string value.
+	 * @throws JsonValueException
+	 *             If the given array of characters is {@literal null} or if
+	 *             the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the string value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onString(char[] value, int offset, int length) throws JsonValueException, JsonException {
+		checkString(value, offset, length);
+		writeIndentation();
+		append(value, offset, length);
+	}
+
+	/**
+	 * Appends the given range of the given array of long values as an array.
+	 * Behaves like a sequence of {@link #onArrayBegin()},
+	 * {@link #onLong(long)}, {@link #onNext()} and {@link #onArrayEnd()}
+	 * events, but calculates the separators between the values only once.
+	 * 
+	 * @param values
+	 *            The array of long values to be appended.
+	 * @param offset
+	 *            The index of the first value to be appended.
+	 * @param length
+	 *            The number of values to be appended.
+	 * @throws JsonValueException
+	 *             If the given array is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the array couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onLongArray(long[] values, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == values) {
+			throw new JsonValueException("The given values are null");
+		}
+		checkRange(values.length, offset, length);
+		String separator = beginArray(length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			if (i != offset) {
+				append(separator);
+			}
+			append(JsonNumbers.toString(values[i]));
+		}
+		onArrayEnd();
+	}
+
+	/**
+	 * Appends the given range of the given array of double values as an
+	 * array. Behaves like a sequence of {@link #onArrayBegin()},
+	 * {@link #onDouble(double)}, {@link #onNext()} and {@link #onArrayEnd()}
+	 * events, but calculates the separators between the values only once.
+	 * 
+	 * @param values
+	 *            The array of double values to be appended.
+	 * @param offset
+	 *            The index of the first value to be appended.
+	 * @param length
+	 *            The number of values to be appended.
+	 * @throws JsonValueException
+	 *             If the given array is {@literal null} or if one of the
+	 *             values to be appended is {@link Double#isInfinite(double)
+	 *             infinite} or {@link Double#isNaN(double) not a number}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the array couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onDoubleArray(double[] values, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == values) {
+			throw new JsonValueException("The given values are null");
+		}
+		checkRange(values.length, offset, length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			checkDouble(values[i]);
+		}
+		String separator = beginArray(length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			if (i != offset) {
+				append(separator);
+			}
+			appendDouble(values[i]);
+		}
+		onArrayEnd();
+	}
+
+	/**
+	 * Appends the given range of the given array of boolean values as an
+	 * array. Behaves like a sequence of {@link #onArrayBegin()},
+	 * {@link #onBoolean(boolean)}, {@link #onNext()} and
+	 * {@link #onArrayEnd()} events, but calculates the separators between the
+	 * values only once.
+	 * 
+	 * @param values
+	 *            The array of boolean values to be appended.
+	 * @param offset
+	 *            The index of the first value to be appended.
+	 * @param length
+	 *            The number of values to be appended.
+	 * @throws JsonValueException
+	 *             If the given array is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the array couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onBooleanArray(boolean[] values, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == values) {
+			throw new JsonValueException("The given values are null");
+		}
+		checkRange(values.length, offset, length);
+		String separator = beginArray(length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			if (i != offset) {
+				append(separator);
+			}
+			append(values[i] ? "true" : "false");
+		}
+		onArrayEnd();
+	}
+
+	/**
+	 * Appends the given range of the given array of string values as an
+	 * array. Behaves like a sequence of {@link #onArrayBegin()},
+	 * {@link #onString(String)}, {@link #onNext()} and {@link #onArrayEnd()}
+	 * events, but calculates the separators between the values only once.
+	 * 
+	 * @param values
+	 *            The array of string values to be appended.
+	 * @param offset
+	 *            The index of the first value to be appended.
+	 * @param length
+	 *            The number of values to be appended.
+	 * @throws JsonValueException
+	 *             If the given array is {@literal null} or if one of the
+	 *             values to be appended is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the array couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onStringArray(String[] values, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == values) {
+			throw new JsonValueException("The given values are null");
+		}
+		checkRange(values.length, offset, length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			checkString(values[i]);
+		}
+		String separator = beginArray(length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			if (i != offset) {
+				append(separator);
+			}
+			append(values[i]);
+		}
+		onArrayEnd();
+	}
+
+	/**
+	 * Appends the JSON value with the given identity and version from the
+	 * given {@link RenderedJsonCache}. If the given {@link RenderedJsonCache}
+	 * contains no such value, that has been rendered in the same way as this
+	 * {@link AbstractAppendingJavaTextJsonHandler} would render it at the
+	 * current position, the JSON value is obtained from the given
+	 * {@link JsonProducer}, appended and stored in the given
+	 * {@link RenderedJsonCache}.
+	 * 
+	 * <p>
+	 * Separators must be reported with {@link #onNext()}, as with any other
+	 * value.
+	 * 
+	 * @param cache
+	 *            The {@link RenderedJsonCache} to be used.
+	 * @param identity
+	 *            The identity of the JSON value.
+	 * @param version
+	 *            The version of the JSON value.
+	 * @param producer
+	 *            The {@link JsonProducer} that describes the JSON value.
+	 * @throws IllegalArgumentException
+	 *             If the given {@link RenderedJsonCache}, the given identity or
+	 *             the given {@link JsonProducer} is {@literal null}.
+	 * @throws JsonException
+	 *             If the JSON value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onCachedValue(RenderedJsonCache cache, Object identity, long version, JsonProducer producer)
+			throws IllegalArgumentException, JsonException {
+		if (null == cache) {
+			throw new IllegalArgumentException("The given cache is null");
+		}
+		if (null == identity) {
+			throw new IllegalArgumentException("The given identity is null");
+		}
+		if (null == producer) {
+			throw new IllegalArgumentException("The given producer is null");
+		}
+		RenderedJsonCache.Key key = new RenderedJsonCache.Key(identity, version,
+				AbstractAppendingJavaTextJsonHandler.class, indentation, false, doubleFormat, depth);
 		writeIndentation();
+		String value = cache.get(key);
+		if (null == value) {
+			Appendable previousTarget = target;
+			StringBuilder builder = new StringBuilder();
+			target = builder;
+			indented = true;
+			try {
+				producer.produce(this);
+			} finally {
+				target = previousTarget;
+			}
+			value = builder.toString();
+			cache.put(key, value);
+		}
 		append(value);
 	}
 
+	final void handleName(CharSequence name) throws JsonException {
+		beginName();
+		append(name);
+		append("=");
+	}
+
+	final void handleDouble(double value) throws JsonException {
+		writeIndentation();
+		appendDouble(value);
+	}
+
+	final void handleString(CharSequence value) throws JsonException {
+		writeIndentation();
+		append(value);
+	}
+
+	private final void beginName() throws JsonException {
+		appendIndentation();
+		indented = true;
+	}
+
+	private final String beginArray(int length) throws JsonException {
+		onArrayBegin();
+		if (0 == length) {
+			return null;
+		}
+		writeIndentation();
+		String separator = ("".equals(indentation.getLineBreak()) ? ", " : ",") + indentationBuffer.get(depth);
+		return separator;
+	}
+
 	private final void writeIndentation() throws JsonException {
 		if (!indented) {
-			append(indentation.get(depth, true));
+			appendIndentation();
 		}
 		indented = false;
 		empty = false;
 	}
 
-	private final void append(String string) throws JsonException {
+	private final void appendIndentation() throws JsonException {
+		try {
+			indentationBuffer.append(target, depth);
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+	}
+
+	private final void append(CharSequence string) throws JsonException {
 		try {
-			appendable.append(string);
+			target.append(string);
 		} catch (IOException e) {
 			throw new JsonHandlingException(e);
 		}
 	}
 
+	private final void appendDouble(double value) throws JsonException {
+		if (null == doubleBuffer) {
+			append(Double.toString(value));
+		} else {
+			append(doubleBuffer, 0, doubleFormat.format(value, doubleBuffer));
+		}
+	}
+
+	private final void append(char[] characters, int offset, int length) throws JsonException {
+		try {
+			JsonEscaping.appendCharacters(target, characters, offset, offset + length);
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+	}
+
+	private void checkName(CharSequence name) throws JsonIndexException {
+		if (null == name) {
+			checkName((String) null);
+		}
+	}
+
+	private void checkName(char[] name, int offset, int length) throws JsonIndexException {
+		if (null == name) {
+			checkName((String) null);
+		} else if (isOutOfBounds(name.length, offset, length)) {
+			throw new JsonIndexException("The given range is out of bounds");
+		}
+	}
+
+	private void checkString(CharSequence value) throws JsonValueException {
+		if (null == value) {
+			checkString((String) null);
+		}
+	}
+
+	private void checkString(char[] value, int offset, int length) throws JsonValueException {
+		if (null == value) {
+			checkString((String) null);
+		} else if (isOutOfBounds(value.length, offset, length)) {
+			throw new JsonValueException("The given range is out of bounds");
+		}
+	}
+
+	private static void checkRange(int size, int offset, int length) throws IndexOutOfBoundsException {
+		if (isOutOfBounds(size, offset, length)) {
+			throw new IndexOutOfBoundsException("The given range is out of bounds");
+		}
+	}
+
+	private static boolean isOutOfBounds(int size, int offset, int length) {
+		return offset < 0 || length < 0 || offset + length > size;
+	}
+
 }
@@ -22,6 +22,9 @@
 package net.markenwerk.utils.json.common.handler.text;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 import net.markenwerk.utils.json.common.JsonException;
 import net.markenwerk.utils.json.common.JsonIndexException;
@@ -47,16 +50,32 @@ import net.markenwerk.utils.text.indentation.Indentation;
 public abstract class AbstractAppendingJsonTextJsonHandler<ActualAppendable extends Appendable, Result> extends
 		IdleJsonHandler<Result> {
 
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
 	private final ActualAppendable appendable;
 
 	private final Indentation indentation;
 
+	private final IndentationBuffer indentationBuffer;
+
+	private final boolean asciiSafe;
+
+	private final DoubleFormat doubleFormat;
+
+	private final char[] doubleBuffer;
+
+	private final ParallelEscaping parallelEscaping;
+
 	private int depth;
 
 	private boolean indented = true;
 
 	private boolean empty;
 
+	private Appendable target;
+
+	private char[] buffer;
+
 	/**
 	 * Creates a new {@link AbstractAppendingJsonTextJsonHandler}.
 	 * 
@@ -66,14 +85,87 @@ public abstract class AbstractAppendingJsonTextJsonHandler<ActualAppendable exte
 	 *            The {@link Indentation} to be used.
 	 */
 	public AbstractAppendingJsonTextJsonHandler(ActualAppendable appendable, Indentation indentation) {
+		this(appendable, indentation, false);
+	}
+
+	/**
+	 * Creates a new {@link AbstractAppendingJsonTextJsonHandler}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences, so that the
+	 *            appended JSON text only consists of 7-bit characters.
+	 * @since 2.1.0
+	 */
+	public AbstractAppendingJsonTextJsonHandler(ActualAppendable appendable, Indentation indentation,
+			boolean asciiSafe) {
+		this(appendable, indentation, asciiSafe, DoubleFormat.SHORTEST);
+	}
+
+	/**
+	 * Creates a new {@link AbstractAppendingJsonTextJsonHandler}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences, so that the
+	 *            appended JSON text only consists of 7-bit characters.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * @since 2.1.0
+	 */
+	public AbstractAppendingJsonTextJsonHandler(ActualAppendable appendable, Indentation indentation,
+			boolean asciiSafe, DoubleFormat doubleFormat) {
+		this(appendable, indentation, asciiSafe, doubleFormat, ParallelEscaping.DISABLED);
+	}
+
+	/**
+	 * Creates a new {@link AbstractAppendingJsonTextJsonHandler}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences, so that the
+	 *            appended JSON text only consists of 7-bit characters.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * @param parallelEscaping
+	 *            The {@link ParallelEscaping} to be used for very long names
+	 *            and string values.
+	 * @since 2.1.0
+	 */
+	public AbstractAppendingJsonTextJsonHandler(ActualAppendable appendable, Indentation indentation,
+			boolean asciiSafe, DoubleFormat doubleFormat, ParallelEscaping parallelEscaping) {
 		if (null == appendable) {
 			throw new IllegalArgumentException("The given appendable is null");
 		}
 		if (null == indentation) {
 			throw new IllegalArgumentException("The given indentation is null");
 		}
+		if (null == doubleFormat) {
+			throw new IllegalArgumentException("The given double format is null");
+		}
+		if (null == parallelEscaping) {
+			throw new IllegalArgumentException("The given parallel escaping is null");
+		}
 		this.appendable = appendable;
 		this.indentation = indentation;
+		this.indentationBuffer = new IndentationBuffer(indentation);
+		this.target = appendable;
+		this.asciiSafe = asciiSafe;
+		this.doubleFormat = doubleFormat;
+		this.doubleBuffer = doubleFormat.isShortest() ? null : new char[DoubleFormat.MAXIMUM_LENGTH];
+		this.parallelEscaping = parallelEscaping;
 	}
 
 	/**
@@ -88,12 +180,50 @@ public abstract class AbstractAppendingJsonTextJsonHandler<ActualAppendable exte
 		return appendable;
 	}
 
+	/**
+	 * Returns whether this {@link AbstractAppendingJsonTextJsonHandler} escapes
+	 * all non-ASCII characters.
+	 * 
+	 * @return Whether this {@link AbstractAppendingJsonTextJsonHandler} escapes
+	 *         all non-ASCII characters.
+	 * @since 2.1.0
+	 */
+	public final boolean isAsciiSafe() {
+		return asciiSafe;
+	}
+
+	/**
+	 * Returns the {@link DoubleFormat} this
+	 * {@link AbstractAppendingJsonTextJsonHandler} formats double values with.
+	 * 
+	 * @return The {@link DoubleFormat} this
+	 *         {@link AbstractAppendingJsonTextJsonHandler} formats double
+	 *         values with.
+	 * @since 2.1.0
+	 */
+	public final DoubleFormat getDoubleFormat() {
+		return doubleFormat;
+	}
+
 	@Override
 	public final void onDocumentBegin() {
 	}
 
 	@Override
-	public final void onDocumentEnd() {
+	public final void onDocumentEnd() throws JsonException {
+		endDocument();
+		BufferRecycler.releaseCharBuffer(buffer);
+		buffer = null;
+	}
+
+	/**
+	 * Called when the handled JSON document ends. Does nothing by default.
+	 * 
+	 * @throws JsonException
+	 *             If the end of the JSON document couldn't be handled.
+	 * @since 2.1.0
+	 */
+	protected void endDocument() throws JsonException {
 	}
 
 	@Override
@@ -135,14 +265,7 @@ public abstract class AbstractAppendingJsonTextJsonHandler<ActualAppendable exte
 	@Override
 	public final void onName(String name) throws JsonIndexException, JsonException {
 		checkName(name);
-		appendUnescaped(indentation.get(depth, true));
-		indented = true;
-		appendUnescaped("\"");
-		appendEscaped(name);
-		appendUnescaped("\":");
-		if (indentation.isVisible()) {
-			appendUnescaped(" ");
-		}
+		handleName(name);
 	}
 
 	@Override
@@ -165,87 +288,681 @@ public abstract class AbstractAppendingJsonTextJsonHandler<ActualAppendable exte
 	@Override
 	public final void onLong(long value) throws JsonException {
 		writeIndentation();
-		appendUnescaped(Long.toString(value));
+		appendUnescaped(JsonNumbers.toString(value));
 	}
 
 	@Override
 	public final void onDouble(double value) throws JsonValueException, JsonException {
 		checkDouble(value);
+		handleDouble(value);
+	}
+
+	/**
+	 * Appends the given number literal unchanged. This allows to append
+	 * numbers that can't be represented as a long or a double without a loss
+	 * of precision (e.g. the result of {@link java.math.BigDecimal#toString()})
+	 * and numbers that have been copied from another JSON text, without parsing
+	 * and formatting them.
+	 * 
+	 * @param literal
+	 *            The number literal to be appended.
+	 * @throws JsonValueException
+	 *             If the given number literal is {@literal null} or not a
+	 *             valid JSON number literal.
+	 * @throws JsonException
+	 *             If the number literal couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onNumber(CharSequence literal) throws JsonValueException, JsonException {
+		if (null == literal) {
+			throw new JsonValueException("The given literal is null");
+		}
+		if (!JsonNumbers.isLiteral(literal)) {
+			throw new JsonValueException("The given literal is not a number: " + literal);
+		}
 		writeIndentation();
-		appendUnescaped(Double.toString(value));
+		appendUnescaped(literal);
 	}
 
 	@Override
 	public final void onString(String value) throws JsonValueException, JsonException {
 		checkString(value);
+		handleString(value);
+	}
+
+	/**
+	 * Appends the given name. Behaves like {@link #onName(String)}, but
+	 * accepts any {@link CharSequence} (e.g. a reused {@link StringBuilder}),
+	 * without the need to create a {@link String}.
+	 * 
+	 * @param name
+	 *            The name to be appended.
+	 * @throws JsonIndexException
+	 *             If the given name is {@literal null}.
+	 * @throws JsonException
+	 *             If the name couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onName(CharSequence name) throws JsonIndexException, JsonException {
+		checkName(name);
+		handleName(name);
+	}
+
+	/**
+	 * Appends the given range of the given array of characters as a name.
+	 * Behaves like {@link #onName(String)}, without the need to create a
+	 * {@link String}.
+	 * 
+	 * @param name
+	 *            The array of characters that contains the name.
+	 * @param offset
+	 *            The index of the first character of the name.
+	 * @param length
+	 *            The number of characters of the name.
+	 * @throws JsonIndexException
+	 *             If the given array of characters is {@literal null} or if
+	 *             the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the name couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onName(char[] name, int offset, int length) throws JsonIndexException, JsonException {
+		checkName(name, offset, length);
+		beginName();
+		appendEscaped(name, offset, length);
+		endName();
+	}
+
+	/**
+	 * Appends the given string value. Behaves like {@link #onString(String)},
+	 * but accepts any {@link CharSequence} (e.g. a reused
+	 * {@link StringBuilder}), without the need to create a {@link String}.
+	 * 
+	 * @param value
+	 *            The string value to be appended.
+	 * @throws JsonValueException
+	 *             If the given string value is {@literal null}.
+	 * @throws JsonException
+	 *             If the string value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onString(CharSequence value) throws JsonValueException, JsonException {
+		checkString(value);
+		handleString(value);
+	}
+
+	/**
+	 * Appends the given range of the given array of characters as a string
+	 * value. Behaves like {@link #onString(String)}, without the need to
+	 * create a {@link String}.
+	 * 
+	 * @param value
+	 *            The array of characters that contains the string value.
+	 * @param offset
+	 *            The index of the first character of the string value.
+	 * @param length
+	 *            The number of characters of the string value.
+	 * @throws JsonValueException
+	 *             If the given array of characters is {@literal null} or if
+	 *             the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the string value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onString(char[] value, int offset, int length) throws JsonValueException, JsonException {
+		checkString(value, offset, length);
+		writeIndentation();
+		appendUnescaped("\"");
+		appendEscaped(value, offset, length);
+		appendUnescaped("\"");
+	}
+
+	/**
+	 * Appends the string value that is read from the given {@link Reader}.
+	 * The string value is escaped and appended in chunks, while it is read,
+	 * and is never held in memory as a whole. The given {@link Reader} is read
+	 * until its end, but isn't closed.
+	 * 
+	 * @param reader
+	 *            The {@link Reader} to read the string value from.
+	 * @throws JsonValueException
+	 *             If the given {@link Reader} is {@literal null}.
+	 * @throws JsonException
+	 *             If the string value couldn't be read or appended.
+	 * @since 2.1.0
+	 */
+	public final void onStreamedString(Reader reader) throws JsonValueException, JsonException {
+		if (null == reader) {
+			throw new JsonValueException("The given reader is null");
+		}
+		writeIndentation();
+		appendUnescaped("\"");
+		try {
+			char[] buffer = getBuffer();
+			int count;
+			while (-1 != (count = reader.read(buffer))) {
+				JsonEscaping.appendEscaped(target, buffer, 0, count, asciiSafe);
+			}
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+		appendUnescaped("\"");
+	}
+
+	/**
+	 * Appends the string value that is the concatenation of all chunks of the
+	 * given {@link Iterable}. Each chunk is escaped and appended as soon as it
+	 * is obtained from the given {@link Iterable}.
+	 * 
+	 * @param chunks
+	 *            The chunks of the string value.
+	 * @throws JsonValueException
+	 *             If the given {@link Iterable} is {@literal null} or yields
+	 *             {@literal null}.
+	 * @throws JsonException
+	 *             If the string value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onChunkedString(Iterable<? extends CharSequence> chunks) throws JsonValueException,
+			JsonException {
+		if (null == chunks) {
+			throw new JsonValueException("The given chunks are null");
+		}
+		writeIndentation();
+		appendUnescaped("\"");
+		try {
+			for (CharSequence chunk : chunks) {
+				if (null == chunk) {
+					throw new JsonValueException("The given chunks contain null");
+				}
+				JsonEscaping.appendEscaped(target, chunk, 0, chunk.length(), asciiSafe);
+			}
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+		appendUnescaped("\"");
+	}
+
+	/**
+	 * Appends the given binary value as a Base64 encoded string value.
+	 * 
+	 * @param value
+	 *            The binary value to be appended.
+	 * @throws JsonValueException
+	 *             If the given binary value is {@literal null}.
+	 * @throws JsonException
+	 *             If the binary value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onBinary(byte[] value) throws JsonValueException, JsonException {
+		if (null == value) {
+			throw new JsonValueException("The given value is null");
+		}
+		onBinary(value, 0, value.length);
+	}
+
+	/**
+	 * Appends the given range of the given binary value as a Base64 encoded
+	 * string value.
+	 * 
+	 * @param value
+	 *            The binary value to be appended.
+	 * @param offset
+	 *            The index of the first byte to be appended.
+	 * @param length
+	 *            The number of bytes to be appended.
+	 * @throws JsonValueException
+	 *             If the given binary value is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the binary value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onBinary(byte[] value, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == value) {
+			throw new JsonValueException("The given value is null");
+		}
+		checkRange(value.length, offset, length);
+		writeIndentation();
+		appendUnescaped("\"");
+		try {
+			Base64Encoding.appendEncoded(target, value, offset, length, getBuffer());
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+		appendUnescaped("\"");
+	}
+
+	/**
+	 * Appends the remaining bytes of the given {@link ByteBuffer} as a Base64
+	 * encoded string value. The position of the given {@link ByteBuffer} is
+	 * advanced to its limit.
+	 * 
+	 * @param value
+	 *            The binary value to be appended.
+	 * @throws JsonValueException
+	 *             If the given {@link ByteBuffer} is {@literal null}.
+	 * @throws JsonException
+	 *             If the binary value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onBinary(ByteBuffer value) throws JsonValueException, JsonException {
+		if (null == value) {
+			throw new JsonValueException("The given value is null");
+		}
+		writeIndentation();
+		appendUnescaped("\"");
+		try {
+			Base64Encoding.appendEncoded(target, value, getBuffer());
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+		appendUnescaped("\"");
+	}
+
+	/**
+	 * Appends the given JSON text as a value. The given JSON text is appended
+	 * unchanged, without being parsed or escaped. It is therefore the
+	 * responsibility of the caller to ensure that the given JSON text is a
+	 * valid JSON value (e.g. a previously rendered JSON document).
+	 * 
+	 * <p>
+	 * Separators must be reported with {@link #onNext()}, as with any other
+	 * value.
+	 * 
+	 * @param json
+	 *            The JSON text to be appended.
+	 * @throws JsonValueException
+	 *             If the given JSON text is {@literal null}.
+	 * @throws JsonException
+	 *             If the JSON text couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onRawJson(CharSequence json) throws JsonValueException, JsonException {
+		if (null == json) {
+			throw new JsonValueException("The given JSON text is null");
+		}
+		writeIndentation();
+		appendUnescaped(json);
+	}
+
+	/**
+	 * Appends the given range of the given array of long values as an array.
+	 * Behaves like a sequence of {@link #onArrayBegin()},
+	 * {@link #onLong(long)}, {@link #onNext()} and {@link #onArrayEnd()}
+	 * events, but calculates the separators between the values only once.
+	 * 
+	 * @param values
+	 *            The array of long values to be appended.
+	 * @param offset
+	 *            The index of the first value to be appended.
+	 * @param length
+	 *            The number of values to be appended.
+	 * @throws JsonValueException
+	 *             If the given array is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the array couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onLongArray(long[] values, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == values) {
+			throw new JsonValueException("The given values are null");
+		}
+		checkRange(values.length, offset, length);
+		String separator = beginArray(length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			if (i != offset) {
+				appendUnescaped(separator);
+			}
+			appendUnescaped(JsonNumbers.toString(values[i]));
+		}
+		onArrayEnd();
+	}
+
+	/**
+	 * Appends the given range of the given array of double values as an
+	 * array. Behaves like a sequence of {@link #onArrayBegin()},
+	 * {@link #onDouble(double)}, {@link #onNext()} and {@link #onArrayEnd()}
+	 * events, but calculates the separators between the values only once.
+	 * 
+	 * @param values
+	 *            The array of double values to be appended.
+	 * @param offset
+	 *            The index of the first value to be appended.
+	 * @param length
+	 *            The number of values to be appended.
+	 * @throws JsonValueException
+	 *             If the given array is {@literal null} or if one of the
+	 *             values to be appended is {@link Double#isInfinite(double)
+	 *             infinite} or {@link Double#isNaN(double) not a number}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the array couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onDoubleArray(double[] values, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == values) {
+			throw new JsonValueException("The given values are null");
+		}
+		checkRange(values.length, offset, length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			checkDouble(values[i]);
+		}
+		String separator = beginArray(length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			if (i != offset) {
+				appendUnescaped(separator);
+			}
+			appendDouble(values[i]);
+		}
+		onArrayEnd();
+	}
+
+	/**
+	 * Appends the given range of the given array of boolean values as an
+	 * array. Behaves like a sequence of {@link #onArrayBegin()},
+	 * {@link #onBoolean(boolean)}, {@link #onNext()} and
+	 * {@link #onArrayEnd()} events, but calculates the separators between the
+	 * values only once.
+	 * 
+	 * @param values
+	 *            The array of boolean values to be appended.
+	 * @param offset
+	 *            The index of the first value to be appended.
+	 * @param length
+	 *            The number of values to be appended.
+	 * @throws JsonValueException
+	 *             If the given array is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the array couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onBooleanArray(boolean[] values, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == values) {
+			throw new JsonValueException("The given values are null");
+		}
+		checkRange(values.length, offset, length);
+		String separator = beginArray(length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			if (i != offset) {
+				appendUnescaped(separator);
+			}
+			appendUnescaped(values[i] ? "true" : "false");
+		}
+		onArrayEnd();
+	}
+
+	/**
+	 * Appends the given range of the given array of string values as an
+	 * array. Behaves like a sequence of {@link #onArrayBegin()},
+	 * {@link #onString(String)}, {@link #onNext()} and {@link #onArrayEnd()}
+	 * events, but calculates the separators between the values only once.
+	 * 
+	 * @param values
+	 *            The array of string values to be appended.
+	 * @param offset
+	 *            The index of the first value to be appended.
+	 * @param length
+	 *            The number of values to be appended.
+	 * @throws JsonValueException
+	 *             If the given array is {@literal null} or if one of the
+	 *             values to be appended is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the array couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onStringArray(String[] values, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == values) {
+			throw new JsonValueException("The given values are null");
+		}
+		checkRange(values.length, offset, length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			checkString(values[i]);
+		}
+		String separator = beginArray(length);
+		for (int i = offset, n = offset + length; i < n; i++) {
+			if (i != offset) {
+				appendUnescaped(separator);
+			}
+			appendUnescaped("\"");
+			appendEscaped(values[i]);
+			appendUnescaped("\"");
+		}
+		onArrayEnd();
+	}
+
+	/**
+	 * Appends the JSON value with the given identity and version from the
+	 * given {@link RenderedJsonCache}. If the given {@link RenderedJsonCache}
+	 * contains no such value, that has been rendered in the same way as this
+	 * {@link AbstractAppendingJsonTextJsonHandler} would render it at the
+	 * current position, the JSON value is obtained from the given
+	 * {@link JsonProducer}, appended and stored in the given
+	 * {@link RenderedJsonCache}.
+	 * 
+	 * <p>
+	 * Separators must be reported with {@link #onNext()}, as with any other
+	 * value.
+	 * 
+	 * @param cache
+	 *            The {@link RenderedJsonCache} to be used.
+	 * @param identity
+	 *            The identity of the JSON value.
+	 * @param version
+	 *            The version of the JSON value.
+	 * @param producer
+	 *            The {@link JsonProducer} that describes the JSON value.
+	 * @throws IllegalArgumentException
+	 *             If the given {@link RenderedJsonCache}, the given identity or
+	 *             the given {@link JsonProducer} is {@literal null}.
+	 * @throws JsonException
+	 *             If the JSON value couldn't be appended.
+	 * @since 2.1.0
+	 */
+	public final void onCachedValue(RenderedJsonCache cache, Object identity, long version, JsonProducer producer)
+			throws IllegalArgumentException, JsonException {
+		if (null == cache) {
+			throw new IllegalArgumentException("The given cache is null");
+		}
+		if (null == identity) {
+			throw new IllegalArgumentException("The given identity is null");
+		}
+		if (null == producer) {
+			throw new IllegalArgumentException("The given producer is null");
+		}
+		RenderedJsonCache.Key key = new RenderedJsonCache.Key(identity, version,
+				AbstractAppendingJsonTextJsonHandler.class, indentation, asciiSafe, doubleFormat, depth);
+		writeIndentation();
+		String value = cache.get(key);
+		if (null == value) {
+			Appendable previousTarget = target;
+			StringBuilder builder = new StringBuilder();
+			target = builder;
+			indented = true;
+			try {
+				producer.produce(this);
+			} finally {
+				target = previousTarget;
+			}
+			value = builder.toString();
+			cache.put(key, value);
+		}
+		appendUnescaped(value);
+	}
+
+	final void handleName(CharSequence name) throws JsonException {
+		beginName();
+		appendEscaped(name);
+		endName();
+	}
+
+	final void handleDouble(double value) throws JsonException {
+		writeIndentation();
+		appendDouble(value);
+	}
+
+	final void handleString(CharSequence value) throws JsonException {
 		writeIndentation();
 		appendUnescaped("\"");
 		appendEscaped(value);
 		appendUnescaped("\"");
 	}
 
+	final void handleUtf8String(byte[] value, int offset, int length) throws JsonException {
+		writeIndentation();
+		appendUnescaped("\"");
+		if (!asciiSafe && target instanceof OutputStreamAppendable && ((OutputStreamAppendable) target).isUtf8()) {
+			try {
+				JsonEscaping.appendEscaped((OutputStreamAppendable) target, value, offset, offset + length);
+			} catch (IOException e) {
+				throw new JsonHandlingException(e);
+			}
+		} else {
+			appendEscaped(new String(value, offset, length, UTF_8));
+		}
+		appendUnescaped("\"");
+	}
+
+	private final void beginName() throws JsonException {
+		appendIndentation();
+		indented = true;
+		appendUnescaped("\"");
+	}
+
+	private final void endName() throws JsonException {
+		appendUnescaped("\":");
+		if (indentation.isVisible()) {
+			appendUnescaped(" ");
+		}
+	}
+
+	private final String beginArray(int length) throws JsonException {
+		onArrayBegin();
+		if (0 == length) {
+			return null;
+		}
+		writeIndentation();
+		String separator = "," + indentationBuffer.get(depth);
+		return separator;
+	}
+
 	private final void writeIndentation() throws JsonException {
 		if (!indented) {
-			appendUnescaped(indentation.get(depth, true));
+			appendIndentation();
 		}
 		indented = false;
 		empty = false;
 	}
 
-	private final void appendUnescaped(String string) throws JsonException {
+	private final char[] getBuffer() {
+		if (null == buffer) {
+			buffer = BufferRecycler.acquireCharBuffer();
+		}
+		return buffer;
+	}
+
+	private final void appendIndentation() throws JsonException {
 		try {
-			appendable.append(string);
+			indentationBuffer.append(target, depth);
 		} catch (IOException e) {
 			throw new JsonHandlingException(e);
 		}
 	}
 
-	private final void appendEscaped(String string) throws JsonException {
+	private final void appendUnescaped(CharSequence string) throws JsonException {
 		try {
-			for (int i = 0, n = string.length(); i < n; i++) {
-				char character = string.charAt(i);
-				switch (character) {
-				case '"':
-					appendable.append("\\\"");
-					break;
-				case '\\':
-					appendable.append("\\\\");
-					break;
-				case '/':
-					appendable.append("\\/");
-					break;
-				case '\r':
-					appendable.append("\\r");
-					break;
-				case '\b':
-					appendable.append("\\b");
-					break;
-				case '\n':
-					appendable.append("\\n");
-					break;
-				case '\t':
-					appendable.append("\\t");
-					break;
-				case '\f':
-					appendable.append("\\f");
-					break;
-				default:
-					if (character < ' ') {
-						appendable.append("\\u");
-						String hexString = Integer.toString(character, 16);
-						for (int j = 0, m = 4 - hexString.length(); j < m; j++) {
-							appendable.append("0");
-
-						}
-						appendable.append(hexString);
-					} else {
-						appendable.append(Character.toString(character));
-					}
-				}
+			target.append(string);
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+	}
+
+	private final void appendDouble(double value) throws JsonException {
+		try {
+			if (null == doubleBuffer) {
+				target.append(Double.toString(value));
+			} else {
+				JsonEscaping.appendCharacters(target, doubleBuffer, 0, doubleFormat.format(value, doubleBuffer));
+			}
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+	}
+
+	private final void appendEscaped(CharSequence string) throws JsonException {
+		try {
+			int length = string.length();
+			if (parallelEscaping.isApplicable(length)) {
+				parallelEscaping.appendEscaped(target, string, 0, length, asciiSafe);
+			} else {
+				JsonEscaping.appendEscaped(target, string, 0, length, asciiSafe);
+			}
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+	}
+
+	private final void appendEscaped(char[] characters, int offset, int length) throws JsonException {
+		try {
+			if (parallelEscaping.isApplicable(length)) {
+				parallelEscaping.appendEscaped(target, characters, offset, offset + length, asciiSafe);
+			} else {
+				JsonEscaping.appendEscaped(target, characters, offset, offset + length, asciiSafe);
 			}
 		} catch (IOException e) {
 			throw new JsonHandlingException(e);
 		}
 	}
 
+	private void checkName(CharSequence name) throws JsonIndexException {
+		if (null == name) {
+			checkName((String) null);
+		}
+	}
+
+	private void checkName(char[] name, int offset, int length) throws JsonIndexException {
+		if (null == name) {
+			checkName((String) null);
+		} else if (isOutOfBounds(name.length, offset, length)) {
+			throw new JsonIndexException("The given range is out of bounds");
+		}
+	}
+
+	private void checkString(CharSequence value) throws JsonValueException {
+		if (null == value) {
+			checkString((String) null);
+		}
+	}
+
+	private void checkString(char[] value, int offset, int length) throws JsonValueException {
+		if (null == value) {
+			checkString((String) null);
+		} else if (isOutOfBounds(value.length, offset, length)) {
+			throw new JsonValueException("The given range is out of bounds");
+		}
+	}
+
+	private static void checkRange(int size, int offset, int length) throws IndexOutOfBoundsException {
+		if (isOutOfBounds(size, offset, length)) {
+			throw new IndexOutOfBoundsException("The given range is out of bounds");
+		}
+	}
+
+	private static boolean isOutOfBounds(int size, int offset, int length) {
+		return offset < 0 || length < 0 || offset + length > size;
+	}
+
 }
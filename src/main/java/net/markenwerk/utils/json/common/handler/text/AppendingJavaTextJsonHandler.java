@@ -58,6 +58,21 @@ public final class AppendingJavaTextJsonHandler extends AbstractAppendingJavaTex
 		super(appendable, indentation);
 	}
 
+	/**
+	 * Creates a new {@link AppendingJavaTextJsonHandler}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * @since 2.1.0
+	 */
+	public AppendingJavaTextJsonHandler(Appendable appendable, Indentation indentation, DoubleFormat doubleFormat) {
+		super(appendable, indentation, doubleFormat);
+	}
+
 	@Override
 	public Void getResult() throws JsonException {
 		return null;
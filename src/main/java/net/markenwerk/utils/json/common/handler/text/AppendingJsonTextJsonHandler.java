@@ -58,6 +58,62 @@ public final class AppendingJsonTextJsonHandler extends AbstractAppendingJsonTex
 		super(appendable, indentation);
 	}
 
+	/**
+	 * Creates a new {@link AppendingJsonTextJsonHandler}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * @since 2.1.0
+	 */
+	public AppendingJsonTextJsonHandler(Appendable appendable, Indentation indentation, boolean asciiSafe) {
+		super(appendable, indentation, asciiSafe);
+	}
+
+	/**
+	 * Creates a new {@link AppendingJsonTextJsonHandler}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * @since 2.1.0
+	 */
+	public AppendingJsonTextJsonHandler(Appendable appendable, Indentation indentation, boolean asciiSafe,
+			DoubleFormat doubleFormat) {
+		super(appendable, indentation, asciiSafe, doubleFormat);
+	}
+
+	/**
+	 * Creates a new {@link AppendingJsonTextJsonHandler}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * @param parallelEscaping
+	 *            The {@link ParallelEscaping} to be used.
+	 * @since 2.1.0
+	 */
+	public AppendingJsonTextJsonHandler(Appendable appendable, Indentation indentation, boolean asciiSafe,
+			DoubleFormat doubleFormat, ParallelEscaping parallelEscaping) {
+		super(appendable, indentation, asciiSafe, doubleFormat, parallelEscaping);
+	}
+
 	@Override
 	public Void getResult() throws JsonException {
 		return null;
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Base64Encoding} encodes binary values with the standard Base64
+ * alphabet and padding, as described in RFC 4648.
+ * 
+ * <p>
+ * Binary values are encoded blockwise into a given buffer, that is appended as
+ * a whole. The only character of the Base64 alphabet that is escaped in a JSON
+ * text is the solidus, which is written as {@literal \/}, exactly as a string
+ * value with the same content would be written. No further processing is
+ * necessary.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+final class Base64Encoding {
+
+	private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+			.toCharArray();
+
+	private static final char PADDING = '=';
+
+	private static final int SOLIDUS_INDEX = 63;
+
+	private Base64Encoding() {
+	}
+
+	/**
+	 * Appends the given range of the given array of bytes as Base64 to the
+	 * given {@link Appendable}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param bytes
+	 *            The array of bytes to be appended.
+	 * @param offset
+	 *            The index of the first byte to be appended.
+	 * @param length
+	 *            The number of bytes to be appended.
+	 * @param buffer
+	 *            The buffer to be used, with a length of at least eight.
+	 * @throws IOException
+	 *             If the given {@link Appendable} couldn't be appended to.
+	 */
+	static void appendEncoded(Appendable appendable, byte[] bytes, int offset, int length, char[] buffer)
+			throws IOException {
+		int blockLength = (buffer.length / 8) * 3;
+		int end = offset + length;
+		while (offset < end) {
+			int count = Math.min(blockLength, end - offset);
+			int position = encode(bytes, offset, count, buffer);
+			JsonEscaping.appendCharacters(appendable, buffer, 0, position);
+			offset += count;
+		}
+	}
+
+	/**
+	 * Appends the remaining bytes of the given {@link ByteBuffer} as Base64 to
+	 * the given {@link Appendable}. The position of the given
+	 * {@link ByteBuffer} is advanced to its limit.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param bytes
+	 *            The {@link ByteBuffer} to be appended.
+	 * @param buffer
+	 *            The buffer to be used, with a length of at least eight.
+	 * @throws IOException
+	 *             If the given {@link Appendable} couldn't be appended to.
+	 */
+	static void appendEncoded(Appendable appendable, ByteBuffer bytes, char[] buffer) throws IOException {
+		if (bytes.hasArray()) {
+			appendEncoded(appendable, bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(),
+					buffer);
+			bytes.position(bytes.limit());
+		} else {
+			byte[] block = BufferRecycler.acquireByteBuffer();
+			try {
+				int blockLength = Math.min((buffer.length / 8) * 3, block.length);
+				while (bytes.hasRemaining()) {
+					int count = Math.min(blockLength, bytes.remaining());
+					bytes.get(block, 0, count);
+					int position = encode(block, 0, count, buffer);
+					JsonEscaping.appendCharacters(appendable, buffer, 0, position);
+				}
+			} finally {
+				BufferRecycler.releaseByteBuffer(block);
+			}
+		}
+	}
+
+	private static int encode(byte[] bytes, int offset, int length, char[] buffer) {
+		int position = 0;
+		int end = offset + length;
+		int fullEnd = offset + (length / 3) * 3;
+		while (offset < fullEnd) {
+			int bits = (bytes[offset++] & 0xFF) << 16 | (bytes[offset++] & 0xFF) << 8 | (bytes[offset++] & 0xFF);
+			position = put((bits >>> 18) & 0x3F, buffer, position);
+			position = put((bits >>> 12) & 0x3F, buffer, position);
+			position = put((bits >>> 6) & 0x3F, buffer, position);
+			position = put(bits & 0x3F, buffer, position);
+		}
+		int remaining = end - offset;
+		if (1 == remaining) {
+			int bits = (bytes[offset] & 0xFF) << 16;
+			position = put((bits >>> 18) & 0x3F, buffer, position);
+			position = put((bits >>> 12) & 0x3F, buffer, position);
+			buffer[position++] = PADDING;
+			buffer[position++] = PADDING;
+		} else if (2 == remaining) {
+			int bits = (bytes[offset] & 0xFF) << 16 | (bytes[offset + 1] & 0xFF) << 8;
+			position = put((bits >>> 18) & 0x3F, buffer, position);
+			position = put((bits >>> 12) & 0x3F, buffer, position);
+			position = put((bits >>> 6) & 0x3F, buffer, position);
+			buffer[position++] = PADDING;
+		}
+		return position;
+	}
+
+	private static int put(int index, char[] buffer, int position) {
+		if (SOLIDUS_INDEX == index) {
+			buffer[position++] = '\\';
+		}
+		buffer[position++] = ALPHABET[index];
+		return position;
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.common.JsonIndexException;
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.handler.IdleJsonHandler;
+import net.markenwerk.utils.json.handler.JsonHandler;
+
+/**
+ * A {@link BroadcastingJsonHandler} is a {@link JsonHandler} that reports all
+ * events of the handled JSON document to multiple other {@link JsonHandler
+ * JsonHandlers} and calculates no result.
+ * 
+ * <p>
+ * Names, double values and string values are checked only once. Delegates
+ * that are an {@link AbstractAppendingJsonTextJsonHandler} or an
+ * {@link AbstractAppendingJavaTextJsonHandler} don't check them again.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class BroadcastingJsonHandler extends IdleJsonHandler<Void> {
+
+	private static final byte OTHER = 0;
+
+	private static final byte JSON_TEXT = 1;
+
+	private static final byte JAVA_TEXT = 2;
+
+	private final JsonHandler<?>[] handlers;
+
+	private final byte[] kinds;
+
+	/**
+	 * Creates a new {@link BroadcastingJsonHandler}.
+	 * 
+	 * @param handlers
+	 *            The {@link JsonHandler JsonHandlers} to report to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given array of {@link JsonHandler JsonHandlers} is
+	 *             {@literal null} or contains {@literal null}.
+	 */
+	public BroadcastingJsonHandler(JsonHandler<?>... handlers) throws IllegalArgumentException {
+		if (null == handlers) {
+			throw new IllegalArgumentException("The given handlers are null");
+		}
+		this.handlers = handlers.clone();
+		this.kinds = new byte[handlers.length];
+		for (int i = 0, n = handlers.length; i < n; i++) {
+			JsonHandler<?> handler = handlers[i];
+			if (null == handler) {
+				throw new IllegalArgumentException("The given handlers contain null");
+			} else if (handler instanceof AbstractAppendingJsonTextJsonHandler<?, ?>) {
+				kinds[i] = JSON_TEXT;
+			} else if (handler instanceof AbstractAppendingJavaTextJsonHandler<?, ?>) {
+				kinds[i] = JAVA_TEXT;
+			} else {
+				kinds[i] = OTHER;
+			}
+		}
+	}
+
+	@Override
+	public void onDocumentBegin() throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onDocumentBegin();
+		}
+	}
+
+	@Override
+	public void onDocumentEnd() throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onDocumentEnd();
+		}
+	}
+
+	@Override
+	public void onArrayBegin() throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onArrayBegin();
+		}
+	}
+
+	@Override
+	public void onArrayEnd() throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onArrayEnd();
+		}
+	}
+
+	@Override
+	public void onObjectBegin() throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onObjectBegin();
+		}
+	}
+
+	@Override
+	public void onObjectEnd() throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onObjectEnd();
+		}
+	}
+
+	@Override
+	public void onName(String name) throws JsonIndexException, JsonException {
+		checkName(name);
+		for (int i = 0, n = handlers.length; i < n; i++) {
+			switch (kinds[i]) {
+			case JSON_TEXT:
+				((AbstractAppendingJsonTextJsonHandler<?, ?>) handlers[i]).handleName(name);
+				break;
+			case JAVA_TEXT:
+				((AbstractAppendingJavaTextJsonHandler<?, ?>) handlers[i]).handleName(name);
+				break;
+			default:
+				handlers[i].onName(name);
+			}
+		}
+	}
+
+	@Override
+	public void onNext() throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onNext();
+		}
+	}
+
+	@Override
+	public void onNull() throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onNull();
+		}
+	}
+
+	@Override
+	public void onBoolean(boolean value) throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onBoolean(value);
+		}
+	}
+
+	@Override
+	public void onLong(long value) throws JsonException {
+		for (JsonHandler<?> handler : handlers) {
+			handler.onLong(value);
+		}
+	}
+
+	@Override
+	public void onDouble(double value) throws JsonValueException, JsonException {
+		checkDouble(value);
+		for (int i = 0, n = handlers.length; i < n; i++) {
+			switch (kinds[i]) {
+			case JSON_TEXT:
+				((AbstractAppendingJsonTextJsonHandler<?, ?>) handlers[i]).handleDouble(value);
+				break;
+			case JAVA_TEXT:
+				((AbstractAppendingJavaTextJsonHandler<?, ?>) handlers[i]).handleDouble(value);
+				break;
+			default:
+				handlers[i].onDouble(value);
+			}
+		}
+	}
+
+	@Override
+	public void onString(String value) throws JsonValueException, JsonException {
+		checkString(value);
+		for (int i = 0, n = handlers.length; i < n; i++) {
+			switch (kinds[i]) {
+			case JSON_TEXT:
+				((AbstractAppendingJsonTextJsonHandler<?, ?>) handlers[i]).handleString(value);
+				break;
+			case JAVA_TEXT:
+				((AbstractAppendingJavaTextJsonHandler<?, ?>) handlers[i]).handleString(value);
+				break;
+			default:
+				handlers[i].onString(value);
+			}
+		}
+	}
+
+	@Override
+	public Void getResult() throws JsonException {
+		return null;
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link BufferRecycler} recycles the internal character and byte buffers of
+ * the handlers in this package, such that short lived handlers don't allocate
+ * new buffers for every JSON document.
+ * 
+ * <p>
+ * Every thread keeps at most one released buffer of each kind in a softly
+ * referenced thread local slot. Further released buffers are kept in a shared
+ * pool, as long as the total size of all buffers in the shared pool doesn't
+ * exceed a maximum size. The maximum size defaults to one MiB and can be set
+ * with the system property
+ * {@code net.markenwerk.utils.json.common.handler.text.recycledBufferSize}.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+final class BufferRecycler {
+
+	/**
+	 * The length of recycled character buffers.
+	 */
+	static final int CHAR_BUFFER_SIZE = 4096;
+
+	/**
+	 * The length of recycled byte buffers.
+	 */
+	static final int BYTE_BUFFER_SIZE = 8192;
+
+	/**
+	 * The name of the system property that sets the maximum size in bytes of
+	 * all buffers in the shared pool.
+	 */
+	static final String MAXIMUM_SIZE_PROPERTY = "net.markenwerk.utils.json.common.handler.text.recycledBufferSize";
+
+	private static final long MAXIMUM_SIZE = Long.getLong(MAXIMUM_SIZE_PROPERTY, 1 << 20);
+
+	private static final ThreadLocal<SoftReference<Slot>> SLOTS = new ThreadLocal<SoftReference<Slot>>();
+
+	private static final Object LOCK = new Object();
+
+	private static final List<char[]> CHAR_BUFFERS = new ArrayList<char[]>();
+
+	private static final List<byte[]> BYTE_BUFFERS = new ArrayList<byte[]>();
+
+	private static long size;
+
+	private BufferRecycler() {
+	}
+
+	/**
+	 * Returns a character buffer with a length of
+	 * {@link BufferRecycler#CHAR_BUFFER_SIZE}.
+	 * 
+	 * @return The character buffer.
+	 */
+	static char[] acquireCharBuffer() {
+		Slot slot = getSlot();
+		char[] buffer = slot.charBuffer;
+		if (null != buffer) {
+			slot.charBuffer = null;
+			return buffer;
+		}
+		synchronized (LOCK) {
+			if (!CHAR_BUFFERS.isEmpty()) {
+				size -= CHAR_BUFFER_SIZE * 2;
+				return CHAR_BUFFERS.remove(CHAR_BUFFERS.size() - 1);
+			}
+		}
+		return new char[CHAR_BUFFER_SIZE];
+	}
+
+	/**
+	 * Returns the given character buffer, that has been obtained with
+	 * {@link BufferRecycler#acquireCharBuffer()}, for recycling. The given
+	 * character buffer must not be used afterwards.
+	 * 
+	 * @param buffer
+	 *            The character buffer. May be {@literal null}.
+	 */
+	static void releaseCharBuffer(char[] buffer) {
+		if (null == buffer || CHAR_BUFFER_SIZE != buffer.length) {
+			return;
+		}
+		Slot slot = getSlot();
+		if (null == slot.charBuffer) {
+			slot.charBuffer = buffer;
+			return;
+		}
+		synchronized (LOCK) {
+			if (size + CHAR_BUFFER_SIZE * 2 <= MAXIMUM_SIZE) {
+				size += CHAR_BUFFER_SIZE * 2;
+				CHAR_BUFFERS.add(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Returns a byte buffer with a length of
+	 * {@link BufferRecycler#BYTE_BUFFER_SIZE}.
+	 * 
+	 * @return The byte buffer.
+	 */
+	static byte[] acquireByteBuffer() {
+		Slot slot = getSlot();
+		byte[] buffer = slot.byteBuffer;
+		if (null != buffer) {
+			slot.byteBuffer = null;
+			return buffer;
+		}
+		synchronized (LOCK) {
+			if (!BYTE_BUFFERS.isEmpty()) {
+				size -= BYTE_BUFFER_SIZE;
+				return BYTE_BUFFERS.remove(BYTE_BUFFERS.size() - 1);
+			}
+		}
+		return new byte[BYTE_BUFFER_SIZE];
+	}
+
+	/**
+	 * Returns the given byte buffer, that has been obtained with
+	 * {@link BufferRecycler#acquireByteBuffer()}, for recycling. The given
+	 * byte buffer must not be used afterwards.
+	 * 
+	 * @param buffer
+	 *            The byte buffer. May be {@literal null}.
+	 */
+	static void releaseByteBuffer(byte[] buffer) {
+		if (null == buffer || BYTE_BUFFER_SIZE != buffer.length) {
+			return;
+		}
+		Slot slot = getSlot();
+		if (null == slot.byteBuffer) {
+			slot.byteBuffer = buffer;
+			return;
+		}
+		synchronized (LOCK) {
+			if (size + BYTE_BUFFER_SIZE <= MAXIMUM_SIZE) {
+				size += BYTE_BUFFER_SIZE;
+				BYTE_BUFFERS.add(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Returns the total size in bytes of all buffers in the shared pool.
+	 * 
+	 * @return The total size of all buffers in the shared pool.
+	 */
+	static long getSharedSize() {
+		synchronized (LOCK) {
+			return size;
+		}
+	}
+
+	private static Slot getSlot() {
+		SoftReference<Slot> reference = SLOTS.get();
+		Slot slot = null == reference ? null : reference.get();
+		if (null == slot) {
+			slot = new Slot();
+			SLOTS.set(new SoftReference<Slot>(slot));
+		}
+		return slot;
+	}
+
+	private static final class Slot {
+
+		private char[] charBuffer;
+
+		private byte[] byteBuffer;
+
+	}
+
+}
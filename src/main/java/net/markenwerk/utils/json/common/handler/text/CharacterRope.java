@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link CharacterRope} is an {@link Appendable} {@link CharSequence} that
+ * stores its characters in a list of fixed-size chunks, instead of a single
+ * contiguous array.
+ * 
+ * <p>
+ * Appending never copies characters that have already been appended and the
+ * total number of characters is only limited by the available memory. Chunks
+ * can optionally be allocated outside of the Java heap (as
+ * {@link ByteBuffer#allocateDirect(int) direct} buffers), in which case their
+ * memory is released when the {@link CharacterRope} is garbage collected.
+ * 
+ * <p>
+ * The content of a {@link CharacterRope} can be written to a {@link Writer},
+ * an {@link Appendable} or an {@link OutputStream}, chunk by chunk, without
+ * creating a single string. As a {@link CharSequence}, a {@link CharacterRope}
+ * can only be used, if it contains at most {@link Integer#MAX_VALUE}
+ * characters.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class CharacterRope implements Appendable, CharSequence {
+
+	/**
+	 * The default number of characters per chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+	/**
+	 * The maximum number of characters per chunk.
+	 */
+	public static final int MAXIMUM_CHUNK_SIZE = Integer.MAX_VALUE / 2;
+
+	private final int chunkSize;
+
+	private final boolean direct;
+
+	private final List<CharBuffer> chunks = new ArrayList<CharBuffer>();
+
+	private CharBuffer chunk;
+
+	private long length;
+
+	/**
+	 * Creates a new {@link CharacterRope} with the
+	 * {@link CharacterRope#DEFAULT_CHUNK_SIZE default chunk size}, that
+	 * allocates its chunks on the Java heap.
+	 */
+	public CharacterRope() {
+		this(DEFAULT_CHUNK_SIZE, false);
+	}
+
+	/**
+	 * Creates a new {@link CharacterRope}.
+	 * 
+	 * @param chunkSize
+	 *            The number of characters per chunk.
+	 * @param direct
+	 *            Whether to allocate the chunks outside of the Java heap.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given chunk size is not positive or larger than
+	 *             {@link CharacterRope#MAXIMUM_CHUNK_SIZE}.
+	 */
+	public CharacterRope(int chunkSize, boolean direct) throws IllegalArgumentException {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("The given chunk size is not positive");
+		}
+		if (chunkSize > MAXIMUM_CHUNK_SIZE) {
+			throw new IllegalArgumentException("The given chunk size is too large");
+		}
+		this.chunkSize = chunkSize;
+		this.direct = direct;
+	}
+
+	/**
+	 * Returns the number of characters in this {@link CharacterRope}.
+	 * 
+	 * @return The number of characters.
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns whether the chunks of this {@link CharacterRope} are allocated
+	 * outside of the Java heap.
+	 * 
+	 * @return Whether the chunks are allocated outside of the Java heap.
+	 */
+	public boolean isDirect() {
+		return direct;
+	}
+
+	@Override
+	public CharacterRope append(CharSequence characters) {
+		return append(characters, 0, characters.length());
+	}
+
+	@Override
+	public CharacterRope append(CharSequence characters, int start, int end) {
+		if (start < 0 || end < start || end > characters.length()) {
+			throw new IndexOutOfBoundsException("The given range is out of bounds");
+		}
+		if (characters instanceof CharBuffer) {
+			appendBuffer((CharBuffer) characters, start, end);
+		} else if (characters instanceof String || characters instanceof StringBuilder
+				|| characters instanceof StringBuffer) {
+			appendString(characters, start, end);
+		} else {
+			for (int i = start; i < end; i++) {
+				append(characters.charAt(i));
+			}
+		}
+		return this;
+	}
+
+	private void appendBuffer(CharBuffer characters, int start, int end) {
+		CharBuffer source = characters.duplicate();
+		int offset = source.position();
+		while (start < end) {
+			CharBuffer chunk = getChunk();
+			int count = Math.min(end - start, chunk.remaining());
+			source.position(offset + start);
+			source.limit(offset + start + count);
+			chunk.put(source);
+			start += count;
+			length += count;
+		}
+	}
+
+	private void appendString(CharSequence characters, int start, int end) {
+		char[] buffer = null;
+		try {
+			while (start < end) {
+				CharBuffer chunk = getChunk();
+				int count = Math.min(end - start, chunk.remaining());
+				if (chunk.hasArray()) {
+					int position = chunk.position();
+					getChars(characters, start, start + count, chunk.array(), chunk.arrayOffset() + position);
+					chunk.position(position + count);
+				} else {
+					if (null == buffer) {
+						buffer = BufferRecycler.acquireCharBuffer();
+					}
+					count = Math.min(count, buffer.length);
+					getChars(characters, start, start + count, buffer, 0);
+					chunk.put(buffer, 0, count);
+				}
+				start += count;
+				length += count;
+			}
+		} finally {
+			BufferRecycler.releaseCharBuffer(buffer);
+		}
+	}
+
+	private static void getChars(CharSequence characters, int start, int end, char[] target, int offset) {
+		if (characters instanceof String) {
+			((String) characters).getChars(start, end, target, offset);
+		} else if (characters instanceof StringBuilder) {
+			((StringBuilder) characters).getChars(start, end, target, offset);
+		} else {
+			((StringBuffer) characters).getChars(start, end, target, offset);
+		}
+	}
+
+	@Override
+	public CharacterRope append(char character) {
+		getChunk().put(character);
+		length++;
+		return this;
+	}
+
+	private CharBuffer getChunk() {
+		if (null == chunk || !chunk.hasRemaining()) {
+			if (direct) {
+				chunk = ByteBuffer.allocateDirect(chunkSize * 2).asCharBuffer();
+			} else {
+				chunk = CharBuffer.allocate(chunkSize);
+			}
+			chunks.add(chunk);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Returns the character at the given index.
+	 * 
+	 * @param index
+	 *            The index.
+	 * @return The character at the given index.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given index is negative or not less than the length
+	 *             of this {@link CharacterRope}.
+	 */
+	public char charAt(long index) throws IndexOutOfBoundsException {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("The given index is out of bounds");
+		}
+		return chunks.get((int) (index / chunkSize)).get((int) (index % chunkSize));
+	}
+
+	@Override
+	public char charAt(int index) throws IndexOutOfBoundsException {
+		return charAt((long) index);
+	}
+
+	/**
+	 * Returns the number of characters in this {@link CharacterRope}.
+	 * 
+	 * @return The number of characters.
+	 * @throws IllegalStateException
+	 *             If this {@link CharacterRope} contains more than
+	 *             {@link Integer#MAX_VALUE} characters.
+	 */
+	@Override
+	public int length() throws IllegalStateException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IllegalStateException("This rope is too long to be used as a char sequence");
+		}
+		return (int) length;
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) throws IndexOutOfBoundsException {
+		if (start < 0 || end < start || end > length) {
+			throw new IndexOutOfBoundsException("The given range is out of bounds");
+		}
+		StringBuilder builder = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			builder.append(charAt((long) i));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Appends all characters of this {@link CharacterRope} to the given
+	 * {@link Appendable}, chunk by chunk.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @throws IOException
+	 *             If the given {@link Appendable} threw an {@link IOException}.
+	 */
+	public void appendTo(Appendable appendable) throws IOException {
+		for (CharBuffer chunk : chunks) {
+			appendable.append(getContent(chunk));
+		}
+	}
+
+	/**
+	 * Writes all characters of this {@link CharacterRope} to the given
+	 * {@link Writer}, chunk by chunk.
+	 * 
+	 * @param writer
+	 *            The {@link Writer} to write to.
+	 * @throws IOException
+	 *             If the given {@link Writer} threw an {@link IOException}.
+	 */
+	public void writeTo(Writer writer) throws IOException {
+		char[] buffer = null;
+		try {
+			for (CharBuffer chunk : chunks) {
+				int count = chunk.position();
+				if (chunk.hasArray()) {
+					writer.write(chunk.array(), chunk.arrayOffset(), count);
+				} else {
+					if (null == buffer) {
+						buffer = BufferRecycler.acquireCharBuffer();
+					}
+					CharBuffer view = getContent(chunk);
+					while (view.hasRemaining()) {
+						int length = Math.min(buffer.length, view.remaining());
+						view.get(buffer, 0, length);
+						writer.write(buffer, 0, length);
+					}
+				}
+			}
+		} finally {
+			BufferRecycler.releaseCharBuffer(buffer);
+		}
+	}
+
+	/**
+	 * Writes all characters of this {@link CharacterRope} to the given
+	 * {@link OutputStream}, using UTF-8, chunk by chunk. The given
+	 * {@link OutputStream} is flushed, but not closed.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * @throws IOException
+	 *             If the given {@link OutputStream} threw an
+	 *             {@link IOException}.
+	 */
+	public void writeTo(OutputStream outputStream) throws IOException {
+		OutputStreamAppendable appendable = new OutputStreamAppendable(outputStream);
+		appendTo(appendable);
+		appendable.finish();
+		appendable.flush();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(length());
+		for (CharBuffer chunk : chunks) {
+			builder.append(getContent(chunk));
+		}
+		return builder.toString();
+	}
+
+	private static CharBuffer getContent(CharBuffer chunk) {
+		CharBuffer content = chunk.duplicate();
+		content.flip();
+		return content;
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+/**
+ * A {@link CountingAppendable} is an {@link Appendable} that discards all
+ * appended characters and only counts them, as well as the number of bytes of
+ * their UTF-8 encoding.
+ * 
+ * <p>
+ * Bytes are counted in the same way as they are written by an
+ * {@link OutputStreamAppendable}, i.e. unpaired surrogates are counted as the
+ * single byte of their replacement {@literal ?}.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class CountingAppendable implements Appendable {
+
+	private long characterCount;
+
+	private long byteCount;
+
+	private boolean highSurrogate;
+
+	@Override
+	public Appendable append(CharSequence characters) {
+		return append(characters, 0, characters.length());
+	}
+
+	@Override
+	public Appendable append(CharSequence characters, int start, int end) {
+		long byteCount = 0;
+		for (int i = start; i < end; i++) {
+			char character = characters.charAt(i);
+			if (character < 0x80 && !highSurrogate) {
+				byteCount++;
+			} else {
+				byteCount += count(character);
+			}
+		}
+		this.characterCount += end - start;
+		this.byteCount += byteCount;
+		return this;
+	}
+
+	@Override
+	public Appendable append(char character) {
+		characterCount++;
+		byteCount += count(character);
+		return this;
+	}
+
+	private int count(char character) {
+		int count = 0;
+		if (highSurrogate) {
+			highSurrogate = false;
+			if (Character.isLowSurrogate(character)) {
+				return 4;
+			} else {
+				count = 1;
+			}
+		}
+		if (character < 0x80) {
+			return count + 1;
+		} else if (character < 0x800) {
+			return count + 2;
+		} else if (Character.isHighSurrogate(character)) {
+			highSurrogate = true;
+			return count;
+		} else if (Character.isLowSurrogate(character)) {
+			return count + 1;
+		} else {
+			return count + 3;
+		}
+	}
+
+	/**
+	 * Returns the number of characters appended so far.
+	 * 
+	 * @return The number of characters.
+	 */
+	public long getCharacterCount() {
+		return characterCount;
+	}
+
+	/**
+	 * Returns the number of bytes of the UTF-8 encoding of all characters
+	 * appended so far.
+	 * 
+	 * @return The number of bytes.
+	 */
+	public long getByteCount() {
+		return highSurrogate ? byteCount + 1 : byteCount;
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * A {@link DigestingAppendable} is an {@link Appendable} that appends all
+ * characters to another {@link Appendable} and, at the same time, updates a
+ * {@link Checksum} or a {@link MessageDigest} with the UTF-8 encoding of these
+ * characters.
+ * 
+ * <p>
+ * A {@link DigestingAppendable} can be used as the target of an
+ * {@link AppendingJsonTextJsonHandler} or an
+ * {@link AppendingJavaTextJsonHandler} to calculate a content hash (e.g. for
+ * an ETag) while the JSON document is rendered, without a second pass over the
+ * rendered text. The digest covers the UTF-8 encoded bytes, which are encoded
+ * in the same way as by an {@link OutputStreamAppendable}, i.e. unpaired
+ * surrogates are encoded as {@literal ?}. If the rendered text is written
+ * with another {@link java.nio.charset.Charset}, the digest doesn't match the
+ * written bytes. Use a {@link DigestingOutputStream} underneath the
+ * {@link OutputStreamJsonTextJsonHandler} or
+ * {@link OutputStreamJavaTextJsonHandler} in that case.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class DigestingAppendable implements Appendable {
+
+	private static final OutputStream DISCARDING_OUTPUT_STREAM = new OutputStream() {
+
+		@Override
+		public void write(int value) {
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+		}
+
+	};
+
+	private final Appendable appendable;
+
+	private final DigestingOutputStream outputStream;
+
+	private final OutputStreamAppendable encoder;
+
+	/**
+	 * Creates a new {@link DigestingAppendable} that calculates a
+	 * {@link CRC32} checksum.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} is {@literal null}.
+	 */
+	public DigestingAppendable(Appendable appendable) throws IllegalArgumentException {
+		this(appendable, new DigestingOutputStream(DISCARDING_OUTPUT_STREAM));
+	}
+
+	/**
+	 * Creates a new {@link DigestingAppendable} that updates the given
+	 * {@link Checksum} (e.g. a {@link CRC32} or a {@link Fnv1a64Checksum}).
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param checksum
+	 *            The {@link Checksum} to be updated.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} or the given
+	 *             {@link Checksum} is {@literal null}.
+	 */
+	public DigestingAppendable(Appendable appendable, Checksum checksum) throws IllegalArgumentException {
+		this(appendable, new DigestingOutputStream(DISCARDING_OUTPUT_STREAM, checksum));
+	}
+
+	/**
+	 * Creates a new {@link DigestingAppendable} that updates the given
+	 * {@link MessageDigest}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param digest
+	 *            The {@link MessageDigest} to be updated.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} or the given
+	 *             {@link MessageDigest} is {@literal null}.
+	 */
+	public DigestingAppendable(Appendable appendable, MessageDigest digest) throws IllegalArgumentException {
+		this(appendable, new DigestingOutputStream(DISCARDING_OUTPUT_STREAM, digest));
+	}
+
+	private DigestingAppendable(Appendable appendable, DigestingOutputStream outputStream) {
+		if (null == appendable) {
+			throw new IllegalArgumentException("The given appendable is null");
+		}
+		this.appendable = appendable;
+		this.outputStream = outputStream;
+		this.encoder = new OutputStreamAppendable(outputStream);
+	}
+
+	@Override
+	public Appendable append(CharSequence characters) throws IOException {
+		appendable.append(characters);
+		encoder.append(characters);
+		return this;
+	}
+
+	@Override
+	public Appendable append(CharSequence characters, int start, int end) throws IOException {
+		appendable.append(characters, start, end);
+		encoder.append(characters, start, end);
+		return this;
+	}
+
+	@Override
+	public Appendable append(char character) throws IOException {
+		appendable.append(character);
+		encoder.append(character);
+		return this;
+	}
+
+	/**
+	 * Returns the value of the {@link Checksum} after all characters appended
+	 * so far have been processed.
+	 * 
+	 * @return The value of the {@link Checksum}.
+	 * 
+	 * @throws IllegalStateException
+	 *             If this {@link DigestingAppendable} uses a
+	 *             {@link MessageDigest}.
+	 */
+	public long getChecksum() throws IllegalStateException {
+		complete();
+		return outputStream.getChecksum();
+	}
+
+	/**
+	 * Returns the digest after all characters appended so far have been
+	 * processed. If this {@link DigestingAppendable} uses a {@link Checksum},
+	 * the value of the {@link Checksum} is returned as eight bytes in big
+	 * endian order. If this {@link DigestingAppendable} uses a
+	 * {@link MessageDigest}, the {@link MessageDigest} is completed and reset.
+	 * 
+	 * @return The digest.
+	 */
+	public byte[] getDigest() {
+		complete();
+		return outputStream.getDigest();
+	}
+
+	/**
+	 * Returns the {@link DigestingAppendable#getDigest() digest} as a string
+	 * of lower case hexadecimal digits.
+	 * 
+	 * @return The digest as a string of hexadecimal digits.
+	 */
+	public String getHexDigest() {
+		complete();
+		return outputStream.getHexDigest();
+	}
+
+	/**
+	 * Resets the {@link Checksum} or the {@link MessageDigest}, such that this
+	 * {@link DigestingAppendable} can be used for another JSON document.
+	 */
+	public void reset() {
+		complete();
+		outputStream.reset();
+	}
+
+	private void complete() {
+		try {
+			encoder.release();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
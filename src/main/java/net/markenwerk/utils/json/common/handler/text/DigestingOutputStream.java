@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * A {@link DigestingOutputStream} is an {@link OutputStream} that writes all
+ * bytes to another {@link OutputStream} and, at the same time, updates a
+ * {@link Checksum} or a {@link MessageDigest} with these bytes.
+ * 
+ * <p>
+ * A {@link DigestingOutputStream} can be used as the target of an
+ * {@link OutputStreamJsonTextJsonHandler} or an
+ * {@link OutputStreamJavaTextJsonHandler} to calculate a content hash (e.g. for
+ * an ETag) while the JSON document is written. Because the digest covers the
+ * encoded bytes, it always matches the bytes that have actually been written,
+ * whatever {@link java.nio.charset.Charset} the handler uses.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class DigestingOutputStream extends FilterOutputStream {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final Checksum checksum;
+
+	private final MessageDigest digest;
+
+	/**
+	 * Creates a new {@link DigestingOutputStream} that calculates a
+	 * {@link CRC32} checksum.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null}.
+	 */
+	public DigestingOutputStream(OutputStream outputStream) throws IllegalArgumentException {
+		this(outputStream, new CRC32());
+	}
+
+	/**
+	 * Creates a new {@link DigestingOutputStream} that updates the given
+	 * {@link Checksum} (e.g. a {@link CRC32} or a {@link Fnv1a64Checksum}).
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * @param checksum
+	 *            The {@link Checksum} to be updated.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} or the given
+	 *             {@link Checksum} is {@literal null}.
+	 */
+	public DigestingOutputStream(OutputStream outputStream, Checksum checksum) throws IllegalArgumentException {
+		this(outputStream, checksum, null);
+		if (null == checksum) {
+			throw new IllegalArgumentException("The given checksum is null");
+		}
+	}
+
+	/**
+	 * Creates a new {@link DigestingOutputStream} that updates the given
+	 * {@link MessageDigest}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * @param digest
+	 *            The {@link MessageDigest} to be updated.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} or the given
+	 *             {@link MessageDigest} is {@literal null}.
+	 */
+	public DigestingOutputStream(OutputStream outputStream, MessageDigest digest) throws IllegalArgumentException {
+		this(outputStream, null, digest);
+		if (null == digest) {
+			throw new IllegalArgumentException("The given digest is null");
+		}
+	}
+
+	private DigestingOutputStream(OutputStream outputStream, Checksum checksum, MessageDigest digest) {
+		super(outputStream);
+		if (null == outputStream) {
+			throw new IllegalArgumentException("The given output stream is null");
+		}
+		this.checksum = checksum;
+		this.digest = digest;
+	}
+
+	@Override
+	public void write(int value) throws IOException {
+		out.write(value);
+		if (null != checksum) {
+			checksum.update(value);
+		} else if (null != digest) {
+			digest.update((byte) value);
+		}
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) throws IOException {
+		out.write(bytes, offset, length);
+		if (null != checksum) {
+			checksum.update(bytes, offset, length);
+		} else if (null != digest) {
+			digest.update(bytes, offset, length);
+		}
+	}
+
+	/**
+	 * Returns the value of the {@link Checksum} after all bytes written so far
+	 * have been processed.
+	 * 
+	 * @return The value of the {@link Checksum}.
+	 * 
+	 * @throws IllegalStateException
+	 *             If this {@link DigestingOutputStream} uses a
+	 *             {@link MessageDigest}.
+	 */
+	public long getChecksum() throws IllegalStateException {
+		if (null == checksum) {
+			throw new IllegalStateException("This output stream doesn't use a checksum");
+		}
+		return checksum.getValue();
+	}
+
+	/**
+	 * Returns the digest after all bytes written so far have been processed.
+	 * If this {@link DigestingOutputStream} uses a {@link Checksum}, the value
+	 * of the {@link Checksum} is returned as eight bytes in big endian order.
+	 * If this {@link DigestingOutputStream} uses a {@link MessageDigest}, the
+	 * {@link MessageDigest} is completed and reset.
+	 * 
+	 * @return The digest.
+	 */
+	public byte[] getDigest() {
+		if (null != checksum) {
+			long value = checksum.getValue();
+			byte[] bytes = new byte[8];
+			for (int i = 7; i >= 0; i--) {
+				bytes[i] = (byte) value;
+				value >>>= 8;
+			}
+			return bytes;
+		} else {
+			return digest.digest();
+		}
+	}
+
+	/**
+	 * Returns the {@link DigestingOutputStream#getDigest() digest} as a string
+	 * of lower case hexadecimal digits.
+	 * 
+	 * @return The digest as a string of hexadecimal digits.
+	 */
+	public String getHexDigest() {
+		byte[] bytes = getDigest();
+		char[] characters = new char[bytes.length * 2];
+		for (int i = 0, n = bytes.length; i < n; i++) {
+			characters[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			characters[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+		return new String(characters);
+	}
+
+	/**
+	 * Resets the {@link Checksum} or the {@link MessageDigest}, such that this
+	 * {@link DigestingOutputStream} can be used for another JSON document.
+	 */
+	public void reset() {
+		if (null != checksum) {
+			checksum.reset();
+		} else {
+			digest.reset();
+		}
+	}
+
+}
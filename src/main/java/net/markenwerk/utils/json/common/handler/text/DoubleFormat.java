@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+/**
+ * A {@link DoubleFormat} describes how double values are formatted by the text
+ * handlers.
+ * 
+ * <p>
+ * The {@link DoubleFormat#SHORTEST default} {@link DoubleFormat} yields the
+ * result of {@link Double#toString(double)}, i.e. the shortest decimal that
+ * uniquely identifies the double value. A
+ * {@link DoubleFormat#significantDigits(int) significant digits}
+ * {@link DoubleFormat} rounds to the given number of significant digits and
+ * yields the same layout as {@link Double#toString(double)}, but without
+ * trailing zeros (e.g. {@literal 3.14159}, {@literal 1.0E-5} or
+ * {@literal 1.23457E10}). A {@link DoubleFormat#fixedDecimals(int) fixed
+ * decimals} {@link DoubleFormat} rounds to the given number of decimals and
+ * always yields exactly that number of decimals (e.g. {@literal 3.142}).
+ * 
+ * <p>
+ * Rounding is performed half away from zero on the exact decimal value of
+ * the double value. If the value, scaled with an exactly representable power
+ * of ten, is far enough from a rounding boundary, the digits are calculated
+ * with floating point and integer arithmetic. Otherwise, the digits are
+ * calculated exactly from the binary mantissa and exponent of the value with
+ * multi-word integer arithmetic. With
+ * {@link DoubleFormat#MAXIMUM_PRECISION} significant digits, the formatted
+ * text is always parsed as the original double value. Values, that would be
+ * rounded to a magnitude beyond {@link Double#MAX_VALUE}, are rounded toward
+ * zero instead, so that the formatted text is never parsed as an infinite
+ * value. Negative zero and negative values that are rounded to zero are
+ * formatted as zero without a sign.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class DoubleFormat {
+
+	private static final int SHORTEST_MODE = 0;
+
+	private static final int SIGNIFICANT_DIGITS_MODE = 1;
+
+	private static final int FIXED_DECIMALS_MODE = 2;
+
+	/**
+	 * The {@link DoubleFormat} that yields the result of
+	 * {@link Double#toString(double)}.
+	 */
+	public static final DoubleFormat SHORTEST = new DoubleFormat(SHORTEST_MODE, 0);
+
+	/**
+	 * The maximum number of significant digits or decimals.
+	 */
+	public static final int MAXIMUM_PRECISION = 17;
+
+	static final int MAXIMUM_LENGTH = 48;
+
+	private static final double[] POWERS = new double[23];
+
+	private static final long[] LONG_POWERS = new long[19];
+
+	private static final double FAST_LIMIT = 1L << 50;
+
+	private static final double EXACT_LIMIT = 2e18;
+
+	private static final int POWER_OF_FIVE_STEP = 13;
+
+	private static final int FIVE_TO_THE_STEP = 1220703125;
+
+	private static final int MAXIMUM_EXPONENT = 308;
+
+	private static final long[] MAXIMUM_DIGITS = { 0L, 1L, 17L, 179L, 1797L, 17976L, 179769L, 1797693L, 17976931L,
+			179769313L, 1797693134L, 17976931348L, 179769313486L, 1797693134862L, 17976931348623L, 179769313486231L,
+			1797693134862315L, 17976931348623157L };
+
+	static {
+		POWERS[0] = 1;
+		for (int i = 1; i < POWERS.length; i++) {
+			POWERS[i] = POWERS[i - 1] * 10;
+		}
+		LONG_POWERS[0] = 1;
+		for (int i = 1; i < LONG_POWERS.length; i++) {
+			LONG_POWERS[i] = LONG_POWERS[i - 1] * 10;
+		}
+	}
+
+	private final int mode;
+
+	private final int precision;
+
+	private DoubleFormat(int mode, int precision) {
+		this.mode = mode;
+		this.precision = precision;
+	}
+
+	/**
+	 * Returns a {@link DoubleFormat} that rounds to the given number of
+	 * significant digits.
+	 * 
+	 * @param digits
+	 *            The number of significant digits.
+	 * @return The {@link DoubleFormat}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given number of significant digits is not between
+	 *             {@literal 1} and {@link DoubleFormat#MAXIMUM_PRECISION}.
+	 */
+	public static DoubleFormat significantDigits(int digits) throws IllegalArgumentException {
+		if (digits < 1 || digits > MAXIMUM_PRECISION) {
+			throw new IllegalArgumentException("The given number of significant digits is out of range");
+		}
+		return new DoubleFormat(SIGNIFICANT_DIGITS_MODE, digits);
+	}
+
+	/**
+	 * Returns a {@link DoubleFormat} that rounds to the given number of
+	 * decimals. Values, whose absolute value is {@literal 1.0E18} or larger
+	 * after scaling and rounding, are formatted with
+	 * {@link DoubleFormat#MAXIMUM_PRECISION} significant digits.
+	 * 
+	 * @param decimals
+	 *            The number of decimals.
+	 * @return The {@link DoubleFormat}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given number of decimals is not between {@literal 0}
+	 *             and {@link DoubleFormat#MAXIMUM_PRECISION}.
+	 */
+	public static DoubleFormat fixedDecimals(int decimals) throws IllegalArgumentException {
+		if (decimals < 0 || decimals > MAXIMUM_PRECISION) {
+			throw new IllegalArgumentException("The given number of decimals is out of range");
+		}
+		return new DoubleFormat(FIXED_DECIMALS_MODE, decimals);
+	}
+
+	/**
+	 * Formats the given finite double value.
+	 * 
+	 * @param value
+	 *            The value to be formatted.
+	 * @return The formatted value.
+	 */
+	public String format(double value) {
+		if (SHORTEST_MODE == mode) {
+			return Double.toString(value);
+		} else {
+			char[] buffer = new char[MAXIMUM_LENGTH];
+			return new String(buffer, 0, format(value, buffer));
+		}
+	}
+
+	boolean isShortest() {
+		return SHORTEST_MODE == mode;
+	}
+
+	/**
+	 * Formats the given finite double value into the given buffer, which must
+	 * have a length of at least {@link DoubleFormat#MAXIMUM_LENGTH}. Must not
+	 * be called on {@link DoubleFormat#SHORTEST}.
+	 * 
+	 * @param value
+	 *            The value to be formatted.
+	 * @param buffer
+	 *            The buffer to format into.
+	 * @return The number of characters written into the given buffer.
+	 */
+	int format(double value, char[] buffer) {
+		if (FIXED_DECIMALS_MODE == mode) {
+			return formatFixedDecimals(value, precision, buffer);
+		} else {
+			return formatSignificantDigits(value, precision, buffer);
+		}
+	}
+
+	private static int formatFixedDecimals(double value, int decimals, char[] buffer) {
+		long digits = round(Math.abs(value), decimals);
+		if (digits >= LONG_POWERS[18]) {
+			return formatSignificantDigits(value, MAXIMUM_PRECISION, buffer);
+		}
+		int position = 0;
+		if (value < 0 && 0 != digits) {
+			buffer[position++] = '-';
+		}
+		long integer = digits / LONG_POWERS[decimals];
+		long fraction = digits % LONG_POWERS[decimals];
+		position = appendDigits(integer, buffer, position);
+		if (0 != decimals) {
+			buffer[position++] = '.';
+			for (int i = decimals - 1; i >= 0; i--) {
+				buffer[position + i] = (char) ('0' + fraction % 10);
+				fraction /= 10;
+			}
+			position += decimals;
+		}
+		return position;
+	}
+
+	private static int formatSignificantDigits(double value, int precision, char[] buffer) {
+		double absolute = Math.abs(value);
+		if (0 == absolute) {
+			return appendZero(buffer);
+		}
+		int exponent = (int) Math.floor(Math.log10(absolute));
+		long digits = round(absolute, precision - 1 - exponent);
+		if (digits >= LONG_POWERS[precision]) {
+			exponent++;
+			digits = round(absolute, precision - 1 - exponent);
+		} else if (digits < LONG_POWERS[precision - 1]) {
+			exponent--;
+			digits = round(absolute, precision - 1 - exponent);
+		}
+		if (digits >= LONG_POWERS[precision]) {
+			exponent++;
+			digits /= 10;
+		}
+		if (MAXIMUM_EXPONENT == exponent && digits > MAXIMUM_DIGITS[precision]) {
+			digits = MAXIMUM_DIGITS[precision];
+		}
+		int length = precision;
+		while (length > 1 && 0 == digits % 10) {
+			digits /= 10;
+			length--;
+		}
+		int position = 0;
+		if (value < 0) {
+			buffer[position++] = '-';
+		}
+		if (exponent >= -3 && exponent < 7) {
+			if (exponent < 0) {
+				buffer[position++] = '0';
+				buffer[position++] = '.';
+				for (int i = exponent + 1; i < 0; i++) {
+					buffer[position++] = '0';
+				}
+				position = appendDigits(digits, buffer, position);
+			} else {
+				int integerLength = exponent + 1;
+				if (length <= integerLength) {
+					position = appendDigits(digits, buffer, position);
+					for (int i = length; i < integerLength; i++) {
+						buffer[position++] = '0';
+					}
+					buffer[position++] = '.';
+					buffer[position++] = '0';
+				} else {
+					long divisor = LONG_POWERS[length - integerLength];
+					position = appendDigits(digits / divisor, buffer, position);
+					buffer[position++] = '.';
+					position = appendPaddedDigits(digits % divisor, length - integerLength, buffer, position);
+				}
+			}
+		} else {
+			long divisor = LONG_POWERS[length - 1];
+			buffer[position++] = (char) ('0' + digits / divisor);
+			buffer[position++] = '.';
+			if (1 == length) {
+				buffer[position++] = '0';
+			} else {
+				position = appendPaddedDigits(digits % divisor, length - 1, buffer, position);
+			}
+			buffer[position++] = 'E';
+			if (exponent < 0) {
+				buffer[position++] = '-';
+			}
+			position = appendDigits(Math.abs(exponent), buffer, position);
+		}
+		return position;
+	}
+
+	private static int appendZero(char[] buffer) {
+		buffer[0] = '0';
+		buffer[1] = '.';
+		buffer[2] = '0';
+		return 3;
+	}
+
+	private static long round(double value, int exponent) {
+		if (exponent >= -22 && exponent <= 22) {
+			double scaled = exponent >= 0 ? value * POWERS[exponent] : value / POWERS[-exponent];
+			if (scaled < FAST_LIMIT) {
+				// the scaled value is off by at most half an ulp
+				long integer = (long) scaled;
+				double fraction = scaled - integer;
+				if (Math.abs(fraction - 0.5) > Math.ulp(scaled)) {
+					return fraction > 0.5 ? integer + 1 : integer;
+				}
+			}
+		}
+		if (scale(value, exponent) >= EXACT_LIMIT) {
+			return Long.MAX_VALUE;
+		}
+		return roundExactly(value, exponent);
+	}
+
+	private static double scale(double value, int exponent) {
+		while (exponent > 22) {
+			value *= POWERS[22];
+			exponent -= 22;
+		}
+		while (exponent < -22) {
+			value /= POWERS[22];
+			exponent += 22;
+		}
+		return exponent >= 0 ? value * POWERS[exponent] : value / POWERS[-exponent];
+	}
+
+	private static long roundExactly(double value, int exponent) {
+		// value * 10^exponent = mantissa * 2^binaryExponent * 5^exponent * 2^exponent = numerator / denominator
+		long bits = Double.doubleToRawLongBits(value);
+		int biasedExponent = (int) ((bits >>> 52) & 0x7FF);
+		long mantissa = bits & 0xFFFFFFFFFFFFFL;
+		int binaryExponent;
+		if (0 == biasedExponent) {
+			binaryExponent = -1074;
+		} else {
+			mantissa |= 1L << 52;
+			binaryExponent = biasedExponent - 1075;
+		}
+		int shift = binaryExponent + exponent;
+		int length = (128 + 3 * Math.abs(exponent) + Math.abs(shift)) / 32 + 1;
+		int[] numerator = new int[length];
+		int[] denominator = new int[length];
+		numerator[0] = (int) mantissa;
+		numerator[1] = (int) (mantissa >>> 32);
+		denominator[0] = 1;
+		if (exponent >= 0) {
+			multiplyPowerOfFive(numerator, exponent);
+		} else {
+			multiplyPowerOfFive(denominator, -exponent);
+		}
+		if (shift >= 0) {
+			numerator = shiftLeft(numerator, shift);
+		} else {
+			denominator = shiftLeft(denominator, -shift);
+		}
+		long quotient = 0;
+		for (int i = 62; i >= 0; i--) {
+			int[] subtrahend = shiftLeft(denominator, i);
+			if (compare(numerator, subtrahend) >= 0) {
+				subtract(numerator, subtrahend);
+				quotient |= 1L << i;
+			}
+		}
+		return compare(shiftLeft(numerator, 1), denominator) >= 0 ? quotient + 1 : quotient;
+	}
+
+	private static void multiplyPowerOfFive(int[] number, int exponent) {
+		while (exponent >= POWER_OF_FIVE_STEP) {
+			multiply(number, FIVE_TO_THE_STEP);
+			exponent -= POWER_OF_FIVE_STEP;
+		}
+		int factor = 1;
+		for (int i = 0; i < exponent; i++) {
+			factor *= 5;
+		}
+		multiply(number, factor);
+	}
+
+	private static void multiply(int[] number, int factor) {
+		long carry = 0;
+		for (int i = 0; i < number.length; i++) {
+			long product = (number[i] & 0xFFFFFFFFL) * factor + carry;
+			number[i] = (int) product;
+			carry = product >>> 32;
+		}
+	}
+
+	private static int[] shiftLeft(int[] number, int shift) {
+		int[] result = new int[number.length];
+		int words = shift >>> 5;
+		int bits = shift & 0x1F;
+		for (int i = number.length - 1; i >= words; i--) {
+			int word = number[i - words] << bits;
+			if (0 != bits && i > words) {
+				word |= number[i - words - 1] >>> (32 - bits);
+			}
+			result[i] = word;
+		}
+		return result;
+	}
+
+	private static int compare(int[] left, int[] right) {
+		for (int i = left.length - 1; i >= 0; i--) {
+			if (left[i] != right[i]) {
+				return (left[i] & 0xFFFFFFFFL) < (right[i] & 0xFFFFFFFFL) ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+
+	private static void subtract(int[] minuend, int[] subtrahend) {
+		long borrow = 0;
+		for (int i = 0; i < minuend.length; i++) {
+			long difference = (minuend[i] & 0xFFFFFFFFL) - (subtrahend[i] & 0xFFFFFFFFL) - borrow;
+			minuend[i] = (int) difference;
+			borrow = difference < 0 ? 1 : 0;
+		}
+	}
+
+	private static int appendDigits(long value, char[] buffer, int position) {
+		int length = 1;
+		while (length < LONG_POWERS.length && value >= LONG_POWERS[length]) {
+			length++;
+		}
+		return appendPaddedDigits(value, length, buffer, position);
+	}
+
+	private static int appendPaddedDigits(long value, int length, char[] buffer, int position) {
+		for (int i = position + length - 1; i >= position; i--) {
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		return position + length;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * mode + precision;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		} else if (!(object instanceof DoubleFormat)) {
+			return false;
+		}
+		DoubleFormat other = (DoubleFormat) object;
+		return mode == other.mode && precision == other.precision;
+	}
+
+	@Override
+	public String toString() {
+		switch (mode) {
+		case SIGNIFICANT_DIGITS_MODE:
+			return "DoubleFormat [significantDigits=" + precision + "]";
+		case FIXED_DECIMALS_MODE:
+			return "DoubleFormat [fixedDecimals=" + precision + "]";
+		default:
+			return "DoubleFormat [shortest]";
+		}
+	}
+
+}
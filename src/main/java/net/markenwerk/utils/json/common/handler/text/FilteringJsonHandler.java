@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.Arrays;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.common.JsonIndexException;
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.common.handler.text.JsonPathFilter.Node;
+import net.markenwerk.utils.json.handler.IdleJsonHandler;
+import net.markenwerk.utils.json.handler.JsonHandler;
+
+/**
+ * A {@link FilteringJsonHandler} is a {@link JsonHandler} that reports only
+ * those values of the handled JSON document to another {@link JsonHandler},
+ * that are included by a {@link JsonPathFilter}, and calculates the result of
+ * that {@link JsonHandler}.
+ * 
+ * <p>
+ * Arrays and objects that contain included values are reported, even if they
+ * are not included themselves. They are reported lazily, when the first
+ * included value is encountered, such that no empty containers are reported
+ * for parts of the document without included values. Separators are reported
+ * only between reported values.
+ * 
+ * <p>
+ * Values that are not included are skipped without any further processing
+ * (especially, names, double values and string values of skipped values are
+ * not checked). Skipped arrays and objects are traced with a single depth
+ * counter. If the document value itself is not included, only the begin and
+ * the end of the document are reported.
+ * 
+ * @param <Result>
+ *            The result type.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class FilteringJsonHandler<Result> extends IdleJsonHandler<Result> {
+
+	private static final byte DOCUMENT = 0;
+
+	private static final byte ARRAY = 1;
+
+	private static final byte OBJECT = 2;
+
+	private static final byte SKIP = 0;
+
+	private static final byte INCLUDE = 1;
+
+	private static final byte DEFER = 2;
+
+	private final JsonHandler<Result> handler;
+
+	private final JsonPathFilter filter;
+
+	private byte[] kinds = new byte[16];
+
+	private Node[] nodes = new Node[16];
+
+	private boolean[] included = new boolean[16];
+
+	private boolean[] reported = new boolean[16];
+
+	private boolean[] filled = new boolean[16];
+
+	private int[] indices = new int[16];
+
+	private String[] names = new String[16];
+
+	private int depth;
+
+	private int skippedDepth;
+
+	private Node node;
+
+	/**
+	 * Creates a new {@link FilteringJsonHandler}.
+	 * 
+	 * @param handler
+	 *            The {@link JsonHandler} to report included values to.
+	 * @param filter
+	 *            The {@link JsonPathFilter} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonHandler} or the given
+	 *             {@link JsonPathFilter} is {@literal null}.
+	 */
+	public FilteringJsonHandler(JsonHandler<Result> handler, JsonPathFilter filter) throws IllegalArgumentException {
+		if (null == handler) {
+			throw new IllegalArgumentException("The given handler is null");
+		}
+		if (null == filter) {
+			throw new IllegalArgumentException("The given filter is null");
+		}
+		this.handler = handler;
+		this.filter = filter;
+	}
+
+	@Override
+	public void onDocumentBegin() throws JsonException {
+		depth = 0;
+		skippedDepth = 0;
+		kinds[0] = DOCUMENT;
+		nodes[0] = null;
+		included[0] = filter.isIncludeAll();
+		reported[0] = true;
+		filled[0] = false;
+		handler.onDocumentBegin();
+	}
+
+	@Override
+	public void onDocumentEnd() throws JsonException {
+		handler.onDocumentEnd();
+	}
+
+	@Override
+	public void onArrayBegin() throws JsonException {
+		if (0 != skippedDepth) {
+			skippedDepth++;
+		} else {
+			switch (select()) {
+			case INCLUDE:
+				prepareValue();
+				handler.onArrayBegin();
+				push(ARRAY, true);
+				break;
+			case DEFER:
+				push(ARRAY, false);
+				break;
+			default:
+				skippedDepth = 1;
+			}
+		}
+	}
+
+	@Override
+	public void onArrayEnd() throws JsonException {
+		if (0 != skippedDepth) {
+			skippedDepth--;
+		} else {
+			if (reported[depth]) {
+				handler.onArrayEnd();
+			}
+			depth--;
+		}
+	}
+
+	@Override
+	public void onObjectBegin() throws JsonException {
+		if (0 != skippedDepth) {
+			skippedDepth++;
+		} else {
+			switch (select()) {
+			case INCLUDE:
+				prepareValue();
+				handler.onObjectBegin();
+				push(OBJECT, true);
+				break;
+			case DEFER:
+				push(OBJECT, false);
+				break;
+			default:
+				skippedDepth = 1;
+			}
+		}
+	}
+
+	@Override
+	public void onObjectEnd() throws JsonException {
+		if (0 != skippedDepth) {
+			skippedDepth--;
+		} else {
+			if (reported[depth]) {
+				handler.onObjectEnd();
+			}
+			depth--;
+		}
+	}
+
+	@Override
+	public void onName(String name) throws JsonIndexException, JsonException {
+		if (0 == skippedDepth) {
+			names[depth] = name;
+		}
+	}
+
+	@Override
+	public void onNext() throws JsonException {
+		if (0 == skippedDepth && ARRAY == kinds[depth]) {
+			indices[depth]++;
+		}
+	}
+
+	@Override
+	public void onNull() throws JsonException {
+		if (0 == skippedDepth && INCLUDE == select()) {
+			prepareValue();
+			handler.onNull();
+		}
+	}
+
+	@Override
+	public void onBoolean(boolean value) throws JsonException {
+		if (0 == skippedDepth && INCLUDE == select()) {
+			prepareValue();
+			handler.onBoolean(value);
+		}
+	}
+
+	@Override
+	public void onLong(long value) throws JsonException {
+		if (0 == skippedDepth && INCLUDE == select()) {
+			prepareValue();
+			handler.onLong(value);
+		}
+	}
+
+	@Override
+	public void onDouble(double value) throws JsonValueException, JsonException {
+		if (0 == skippedDepth && INCLUDE == select()) {
+			prepareValue();
+			handler.onDouble(value);
+		}
+	}
+
+	@Override
+	public void onString(String value) throws JsonValueException, JsonException {
+		if (0 == skippedDepth && INCLUDE == select()) {
+			prepareValue();
+			handler.onString(value);
+		}
+	}
+
+	@Override
+	public Result getResult() throws JsonException {
+		return handler.getResult();
+	}
+
+	private byte select() {
+		Node node;
+		switch (kinds[depth]) {
+		case DOCUMENT:
+			node = filter.getRoot();
+			break;
+		case ARRAY:
+			node = null == nodes[depth] ? null : nodes[depth].getChild(indices[depth]);
+			break;
+		default:
+			node = null == nodes[depth] ? null : nodes[depth].getChild(names[depth]);
+		}
+		if (null != node && node.isExcluded()) {
+			return SKIP;
+		} else if (included[depth] || (null != node && node.isIncluded())) {
+			this.node = null != node && node.hasExcludeBelow() ? node : null;
+			return INCLUDE;
+		} else if (null != node && node.hasChildren()) {
+			this.node = node;
+			return DEFER;
+		} else {
+			return SKIP;
+		}
+	}
+
+	private void push(byte kind, boolean include) {
+		if (++depth == kinds.length) {
+			grow();
+		}
+		kinds[depth] = kind;
+		nodes[depth] = node;
+		included[depth] = include;
+		reported[depth] = include;
+		filled[depth] = false;
+		indices[depth] = 0;
+		names[depth] = null;
+	}
+
+	private void grow() {
+		int length = kinds.length * 2;
+		kinds = Arrays.copyOf(kinds, length);
+		nodes = Arrays.copyOf(nodes, length);
+		included = Arrays.copyOf(included, length);
+		reported = Arrays.copyOf(reported, length);
+		filled = Arrays.copyOf(filled, length);
+		indices = Arrays.copyOf(indices, length);
+		names = Arrays.copyOf(names, length);
+	}
+
+	private void prepareValue() throws JsonException {
+		if (!reported[depth]) {
+			int first = depth;
+			while (!reported[first - 1]) {
+				first--;
+			}
+			for (int i = first; i <= depth; i++) {
+				prepareEntry(i - 1);
+				if (ARRAY == kinds[i]) {
+					handler.onArrayBegin();
+				} else {
+					handler.onObjectBegin();
+				}
+				reported[i] = true;
+			}
+		}
+		prepareEntry(depth);
+	}
+
+	private void prepareEntry(int level) throws JsonException {
+		if (filled[level]) {
+			handler.onNext();
+		} else {
+			filled[level] = true;
+		}
+		if (OBJECT == kinds[level]) {
+			handler.onName(names[level]);
+		}
+	}
+
+}
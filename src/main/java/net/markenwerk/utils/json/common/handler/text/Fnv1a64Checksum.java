@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.zip.Checksum;
+
+/**
+ * A {@link Fnv1a64Checksum} is a {@link Checksum} that calculates the 64-bit
+ * FNV-1a hash of the updated bytes.
+ * 
+ * <p>
+ * FNV-1a is a fast, non-cryptographic hash that is well suited for change
+ * detection (e.g. ETags), but must not be used where collisions can be forged
+ * deliberately.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class Fnv1a64Checksum implements Checksum {
+
+	private static final long OFFSET_BASIS = 0xCBF29CE484222325L;
+
+	private static final long PRIME = 0x100000001B3L;
+
+	private long hash = OFFSET_BASIS;
+
+	@Override
+	public void update(int value) {
+		hash = (hash ^ (value & 0xFF)) * PRIME;
+	}
+
+	@Override
+	public void update(byte[] bytes, int offset, int length) {
+		long hash = this.hash;
+		for (int i = offset, n = offset + length; i < n; i++) {
+			hash = (hash ^ (bytes[i] & 0xFF)) * PRIME;
+		}
+		this.hash = hash;
+	}
+
+	@Override
+	public long getValue() {
+		return hash;
+	}
+
+	@Override
+	public void reset() {
+		hash = OFFSET_BASIS;
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+
+import net.markenwerk.utils.text.indentation.Indentation;
+import net.markenwerk.utils.text.indentation.InvisibleIndentation;
+import net.markenwerk.utils.text.indentation.WhitespaceIndentation;
+
+/**
+ * An {@link IndentationBuffer} appends the line break and indentation of a
+ * given {@link Indentation} for a given depth, without calculating a new
+ * string for every value.
+ * 
+ * <p>
+ * The indentation of a {@link WhitespaceIndentation} or an
+ * {@link InvisibleIndentation} consists of the line break, followed by a
+ * repeated unit. It is appended with a single bulk write from a growable array
+ * of characters that contains the line break, followed by the unit repeated
+ * for the deepest depth so far. The indentation of every other
+ * {@link Indentation} is calculated once per depth.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+final class IndentationBuffer {
+
+	private final Indentation indentation;
+
+	private final char[] unit;
+
+	private final int lineBreakLength;
+
+	private char[] characters;
+
+	private int depth;
+
+	private String[] lines;
+
+	/**
+	 * Creates a new {@link IndentationBuffer}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 */
+	IndentationBuffer(Indentation indentation) {
+		this.indentation = indentation;
+		if (indentation instanceof WhitespaceIndentation || indentation instanceof InvisibleIndentation) {
+			String line = indentation.get(0, true);
+			this.unit = indentation.get(1, true).substring(line.length()).toCharArray();
+			this.lineBreakLength = line.length();
+			this.characters = line.toCharArray();
+		} else {
+			this.unit = null;
+			this.lineBreakLength = 0;
+			this.lines = new String[0];
+		}
+	}
+
+	/**
+	 * Appends the line break and the indentation for the given depth.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param depth
+	 *            The depth.
+	 * @throws IOException
+	 *             If the {@link Appendable} threw an {@link IOException}.
+	 */
+	void append(Appendable appendable, int depth) throws IOException {
+		if (null != unit) {
+			if (depth > this.depth) {
+				grow(depth);
+			}
+			JsonEscaping.appendCharacters(appendable, characters, 0, lineBreakLength + unit.length * depth);
+		} else {
+			appendable.append(get(depth));
+		}
+	}
+
+	/**
+	 * Returns the line break and the indentation for the given depth.
+	 * 
+	 * @param depth
+	 *            The depth.
+	 * @return The line break and the indentation.
+	 */
+	String get(int depth) {
+		if (null != unit) {
+			if (depth > this.depth) {
+				grow(depth);
+			}
+			return new String(characters, 0, lineBreakLength + unit.length * depth);
+		} else {
+			if (depth >= lines.length) {
+				String[] lines = new String[Math.max(depth + 1, this.lines.length * 2)];
+				System.arraycopy(this.lines, 0, lines, 0, this.lines.length);
+				this.lines = lines;
+			}
+			String line = lines[depth];
+			if (null == line) {
+				line = lines[depth] = indentation.get(depth, true);
+			}
+			return line;
+		}
+	}
+
+	private void grow(int depth) {
+		int capacity = Math.max(depth, this.depth * 2);
+		char[] characters = new char[lineBreakLength + unit.length * capacity];
+		System.arraycopy(this.characters, 0, characters, 0, this.characters.length);
+		for (int position = this.characters.length; position < characters.length; position += unit.length) {
+			System.arraycopy(unit, 0, characters, position, unit.length);
+		}
+		this.characters = characters;
+		this.depth = capacity;
+	}
+
+}
@@ -63,6 +63,23 @@ public final class JavaTextJsonHandler extends AbstractAppendingJavaTextJsonHand
 		super(new StringBuilder(), indentation);
 	}
 
+	/**
+	 * Creates a new {@link JavaTextJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} or the given
+	 *             {@link DoubleFormat} is {@literal null}.
+	 * @since 2.1.0
+	 */
+	public JavaTextJsonHandler(Indentation indentation, DoubleFormat doubleFormat) {
+		super(new StringBuilder(), indentation, doubleFormat);
+	}
+
 	@Override
 	public String getResult() throws JsonException {
 		return getAppendable().toString();
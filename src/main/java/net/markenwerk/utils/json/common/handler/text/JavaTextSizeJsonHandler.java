@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.text.indentation.Indentation;
+import net.markenwerk.utils.text.indentation.InvisibleIndentation;
+import net.markenwerk.utils.text.indentation.LineBreak;
+
+/**
+ * A {@link JavaTextSizeJsonHandler} is a
+ * {@link AbstractAppendingJavaTextJsonHandler} that calculates the exact
+ * {@link TextSize} of the text that a {@link JavaTextJsonHandler} with the
+ * same configuration would calculate for the handled JSON document as a
+ * result, without storing that text.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JavaTextSizeJsonHandler extends AbstractAppendingJavaTextJsonHandler<CountingAppendable, TextSize> {
+
+	/**
+	 * Creates a new {@link JavaTextSizeJsonHandler} using the same default
+	 * {@link Indentation} as a {@link JavaTextJsonHandler}.
+	 */
+	public JavaTextSizeJsonHandler() {
+		this(new InvisibleIndentation(LineBreak.NONE));
+	}
+
+	/**
+	 * Creates a new {@link JavaTextSizeJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public JavaTextSizeJsonHandler(Indentation indentation) throws IllegalArgumentException {
+		super(new CountingAppendable(), indentation);
+	}
+
+	/**
+	 * Creates a new {@link JavaTextSizeJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} or the given
+	 *             {@link DoubleFormat} is {@literal null}.
+	 */
+	public JavaTextSizeJsonHandler(Indentation indentation, DoubleFormat doubleFormat)
+			throws IllegalArgumentException {
+		super(new CountingAppendable(), indentation, doubleFormat);
+	}
+
+	@Override
+	public TextSize getResult() throws JsonException {
+		CountingAppendable appendable = getAppendable();
+		return new TextSize(appendable.getCharacterCount(), appendable.getByteCount());
+	}
+
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * A {@link JsonEscaping} contains the escaping rules for names and string
+ * values in a JSON text.
+ * 
+ * <p>
+ * Characters are scanned with a lookup table and runs of characters that don't
+ * need to be escaped are appended as a whole, instead of character by
+ * character.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+final class JsonEscaping {
+
+	static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private static final char UNICODE_ESCAPE = 'u';
+
+	private static final char[] ESCAPES = new char[128];
+
+	static {
+		for (char character = 0; character < ' '; character++) {
+			ESCAPES[character] = UNICODE_ESCAPE;
+		}
+		ESCAPES['"'] = '"';
+		ESCAPES['\\'] = '\\';
+		ESCAPES['/'] = '/';
+		ESCAPES['\r'] = 'r';
+		ESCAPES['\b'] = 'b';
+		ESCAPES['\n'] = 'n';
+		ESCAPES['\t'] = 't';
+		ESCAPES['\f'] = 'f';
+		ESCAPES[0x7F] = UNICODE_ESCAPE;
+	}
+
+	private JsonEscaping() {
+	}
+
+	/**
+	 * Returns whether the given character needs to be escaped.
+	 * 
+	 * @param character
+	 *            The character to be examined.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters need to be escaped.
+	 * @return Whether the given character needs to be escaped.
+	 */
+	static boolean isEscaped(char character, boolean asciiSafe) {
+		if (character < 128) {
+			return 0 != ESCAPES[character] && (asciiSafe || 0x7F != character);
+		} else {
+			return asciiSafe;
+		}
+	}
+
+	/**
+	 * Returns the index of the first character in the given range of the given
+	 * {@link CharSequence} that needs to be escaped.
+	 * 
+	 * @param string
+	 *            The {@link CharSequence} to be scanned.
+	 * @param from
+	 *            The index of the first character to be scanned.
+	 * @param to
+	 *            The index after the last character to be scanned.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters need to be escaped.
+	 * @return The index of the first character that needs to be escaped, or
+	 *         {@code to}, if no such character exists.
+	 */
+	static int indexOfEscaped(CharSequence string, int from, int to, boolean asciiSafe) {
+		for (int i = from; i < to; i++) {
+			if (isEscaped(string.charAt(i), asciiSafe)) {
+				return i;
+			}
+		}
+		return to;
+	}
+
+	/**
+	 * Appends the given range of the given {@link CharSequence} to the given
+	 * {@link Appendable} and escapes all characters as necessary.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param string
+	 *            The {@link CharSequence} to be appended.
+	 * @param from
+	 *            The index of the first character to be appended.
+	 * @param to
+	 *            The index after the last character to be appended.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters need to be escaped.
+	 * @throws IOException
+	 *             If the given {@link Appendable} couldn't be appended to.
+	 */
+	static void appendEscaped(Appendable appendable, CharSequence string, int from, int to, boolean asciiSafe)
+			throws IOException {
+		int start = from;
+		while (start < to) {
+			int end = indexOfEscaped(string, start, to, asciiSafe);
+			if (start != end) {
+				appendable.append(string, start, end);
+			}
+			if (end != to) {
+				appendEscaped(appendable, string.charAt(end));
+			}
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * Appends the given range of the given array of characters to the given
+	 * {@link Appendable} and escapes all characters as necessary.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param characters
+	 *            The array of characters to be appended.
+	 * @param from
+	 *            The index of the first character to be appended.
+	 * @param to
+	 *            The index after the last character to be appended.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters need to be escaped.
+	 * @throws IOException
+	 *             If the given {@link Appendable} couldn't be appended to.
+	 */
+	static void appendEscaped(Appendable appendable, char[] characters, int from, int to, boolean asciiSafe)
+			throws IOException {
+		int start = from;
+		while (start < to) {
+			int end = start;
+			while (end < to && !isEscaped(characters[end], asciiSafe)) {
+				end++;
+			}
+			if (start != end) {
+				appendCharacters(appendable, characters, start, end);
+			}
+			if (end != to) {
+				appendEscaped(appendable, characters[end]);
+			}
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * Writes the given range of the given array of UTF-8 encoded bytes to the
+	 * given {@link OutputStreamAppendable} and escapes all characters as
+	 * necessary. Bytes that aren't part of an ASCII character are written
+	 * unchanged.
+	 * 
+	 * @param appendable
+	 *            The {@link OutputStreamAppendable} to write to.
+	 * @param bytes
+	 *            The array of UTF-8 encoded bytes to be written.
+	 * @param from
+	 *            The index of the first byte to be written.
+	 * @param to
+	 *            The index after the last byte to be written.
+	 * @throws IOException
+	 *             If the given {@link OutputStreamAppendable} couldn't be
+	 *             written to.
+	 */
+	static void appendEscaped(OutputStreamAppendable appendable, byte[] bytes, int from, int to) throws IOException {
+		int start = from;
+		for (int i = from; i < to; i++) {
+			byte value = bytes[i];
+			if (value >= 0 && isEscaped((char) value, false)) {
+				if (start != i) {
+					appendable.writeBytes(bytes, start, i - start);
+				}
+				appendEscaped(appendable, (char) value);
+				start = i + 1;
+			}
+		}
+		if (start != to) {
+			appendable.writeBytes(bytes, start, to - start);
+		}
+	}
+
+	/**
+	 * Appends the given range of the given array of characters to the given
+	 * {@link Appendable}, without creating an intermediate {@link String}, if
+	 * the given {@link Appendable} allows it.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param characters
+	 *            The array of characters to be appended.
+	 * @param from
+	 *            The index of the first character to be appended.
+	 * @param to
+	 *            The index after the last character to be appended.
+	 * @throws IOException
+	 *             If the given {@link Appendable} couldn't be appended to.
+	 */
+	static void appendCharacters(Appendable appendable, char[] characters, int from, int to) throws IOException {
+		if (appendable instanceof StringBuilder) {
+			((StringBuilder) appendable).append(characters, from, to - from);
+		} else if (appendable instanceof Writer) {
+			((Writer) appendable).write(characters, from, to - from);
+		} else {
+			appendable.append(CharBuffer.wrap(characters, from, to - from));
+		}
+	}
+
+	/**
+	 * Appends the escape sequence for the given character to the given
+	 * {@link Appendable}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param character
+	 *            The character to be appended.
+	 * @throws IOException
+	 *             If the given {@link Appendable} couldn't be appended to.
+	 */
+	static void appendEscaped(Appendable appendable, char character) throws IOException {
+		char escape = character < 128 ? ESCAPES[character] : UNICODE_ESCAPE;
+		appendable.append('\\');
+		appendable.append(escape);
+		if (UNICODE_ESCAPE == escape) {
+			appendable.append(HEX_DIGITS[(character >> 12) & 0xF]);
+			appendable.append(HEX_DIGITS[(character >> 8) & 0xF]);
+			appendable.append(HEX_DIGITS[(character >> 4) & 0xF]);
+			appendable.append(HEX_DIGITS[character & 0xF]);
+		}
+	}
+
+}
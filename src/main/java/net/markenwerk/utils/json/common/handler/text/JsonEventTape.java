@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.handler.JsonHandler;
+
+/**
+ * A {@link JsonEventTape} is a compact recording of the events that describe a
+ * JSON document, that has been created by a {@link RecordingJsonHandler}.
+ * 
+ * <p>
+ * Events are stored as opcodes in a byte array. Long values, double values and
+ * indices into a shared string table are stored as operands in a long array.
+ * 
+ * <p>
+ * A {@link JsonEventTape} is immutable and thread safe.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonEventTape {
+
+	static final byte DOCUMENT_BEGIN = 0;
+
+	static final byte DOCUMENT_END = 1;
+
+	static final byte ARRAY_BEGIN = 2;
+
+	static final byte ARRAY_END = 3;
+
+	static final byte OBJECT_BEGIN = 4;
+
+	static final byte OBJECT_END = 5;
+
+	static final byte NAME = 6;
+
+	static final byte NEXT = 7;
+
+	static final byte NULL = 8;
+
+	static final byte TRUE = 9;
+
+	static final byte FALSE = 10;
+
+	static final byte LONG = 11;
+
+	static final byte DOUBLE = 12;
+
+	static final byte STRING = 13;
+
+	private final byte[] opcodes;
+
+	private final long[] operands;
+
+	private final String[] strings;
+
+	JsonEventTape(byte[] opcodes, long[] operands, String[] strings) {
+		this.opcodes = opcodes;
+		this.operands = operands;
+		this.strings = strings;
+	}
+
+	/**
+	 * Returns the number of recorded events.
+	 * 
+	 * @return The number of recorded events.
+	 */
+	public int getEventCount() {
+		return opcodes.length;
+	}
+
+	/**
+	 * Replays all recorded events into the given {@link JsonHandler}.
+	 * 
+	 * @param handler
+	 *            The {@link JsonHandler} to replay into.
+	 * @param <Result>
+	 *            The result type of the given {@link JsonHandler}.
+	 * @return The result of the given {@link JsonHandler}.
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonHandler} is {@literal null}.
+	 * @throws JsonException
+	 *             If the given {@link JsonHandler} couldn't handle an event.
+	 */
+	public <Result> Result replay(JsonHandler<Result> handler) throws IllegalArgumentException, JsonException {
+		if (null == handler) {
+			throw new IllegalArgumentException("The given handler is null");
+		}
+		int operand = 0;
+		for (byte opcode : opcodes) {
+			switch (opcode) {
+			case DOCUMENT_BEGIN:
+				handler.onDocumentBegin();
+				break;
+			case DOCUMENT_END:
+				handler.onDocumentEnd();
+				break;
+			case ARRAY_BEGIN:
+				handler.onArrayBegin();
+				break;
+			case ARRAY_END:
+				handler.onArrayEnd();
+				break;
+			case OBJECT_BEGIN:
+				handler.onObjectBegin();
+				break;
+			case OBJECT_END:
+				handler.onObjectEnd();
+				break;
+			case NAME:
+				handler.onName(strings[(int) operands[operand++]]);
+				break;
+			case NEXT:
+				handler.onNext();
+				break;
+			case NULL:
+				handler.onNull();
+				break;
+			case TRUE:
+				handler.onBoolean(true);
+				break;
+			case FALSE:
+				handler.onBoolean(false);
+				break;
+			case LONG:
+				handler.onLong(operands[operand++]);
+				break;
+			case DOUBLE:
+				handler.onDouble(Double.longBitsToDouble(operands[operand++]));
+				break;
+			case STRING:
+				handler.onString(strings[(int) operands[operand++]]);
+				break;
+			default:
+				throw new IllegalStateException("Unknown opcode " + opcode);
+			}
+		}
+		return handler.getResult();
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A {@link JsonNameMatcher} is a compiled set of name patterns that can be used
+ * with a {@link RedactingJsonHandler}.
+ * 
+ * <p>
+ * A pattern is either an exact name (e.g. {@literal password}) or a simple
+ * pattern, where every {@literal *} matches an arbitrary, possibly empty,
+ * sequence of characters (e.g. {@literal *token*}). Exact names are looked up
+ * in a hash set. Simple patterns are split into literal parts that are matched
+ * without regular expressions.
+ * 
+ * <p>
+ * A {@link JsonNameMatcher} is immutable and can be shared between multiple
+ * handlers.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonNameMatcher {
+
+	private final Set<String> names = new HashSet<String>();
+
+	private final List<String[]> patterns = new ArrayList<String[]>();
+
+	private final boolean ignoreCase;
+
+	/**
+	 * Creates a new case sensitive {@link JsonNameMatcher}.
+	 * 
+	 * @param patterns
+	 *            The patterns to match names with.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given patterns are {@literal null} or contain
+	 *             {@literal null}.
+	 */
+	public JsonNameMatcher(Iterable<String> patterns) throws IllegalArgumentException {
+		this(patterns, false);
+	}
+
+	/**
+	 * Creates a new {@link JsonNameMatcher}.
+	 * 
+	 * @param patterns
+	 *            The patterns to match names with.
+	 * @param ignoreCase
+	 *            Whether to ignore the case of names.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given patterns are {@literal null} or contain
+	 *             {@literal null}.
+	 */
+	public JsonNameMatcher(Iterable<String> patterns, boolean ignoreCase) throws IllegalArgumentException {
+		if (null == patterns) {
+			throw new IllegalArgumentException("The given patterns are null");
+		}
+		this.ignoreCase = ignoreCase;
+		for (String pattern : patterns) {
+			if (null == pattern) {
+				throw new IllegalArgumentException("The given patterns contain null");
+			} else if (-1 == pattern.indexOf('*')) {
+				names.add(ignoreCase ? pattern.toLowerCase(Locale.ENGLISH) : pattern);
+			} else {
+				this.patterns.add(split(pattern));
+			}
+		}
+	}
+
+	private static String[] split(String pattern) {
+		List<String> parts = new ArrayList<String>();
+		int start = 0;
+		for (int i = 0, n = pattern.length(); i <= n; i++) {
+			if (i == n || '*' == pattern.charAt(i)) {
+				parts.add(pattern.substring(start, i));
+				start = i + 1;
+			}
+		}
+		return parts.toArray(new String[parts.size()]);
+	}
+
+	/**
+	 * Returns whether this {@link JsonNameMatcher} ignores the case of names.
+	 * 
+	 * @return Whether this {@link JsonNameMatcher} ignores the case of names.
+	 */
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	/**
+	 * Returns whether the given name is matched by one of the patterns of this
+	 * {@link JsonNameMatcher}.
+	 * 
+	 * @param name
+	 *            The name to be matched.
+	 * @return Whether the given name is matched.
+	 */
+	public boolean matches(String name) {
+		if (null == name) {
+			return false;
+		}
+		if (!names.isEmpty() && names.contains(ignoreCase ? name.toLowerCase(Locale.ENGLISH) : name)) {
+			return true;
+		}
+		for (int i = 0, n = patterns.size(); i < n; i++) {
+			if (matches(name, patterns.get(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matches(String name, String[] parts) {
+		String first = parts[0];
+		String last = parts[parts.length - 1];
+		int from = first.length();
+		int to = name.length() - last.length();
+		if (to < from || !name.regionMatches(ignoreCase, 0, first, 0, first.length())
+				|| !name.regionMatches(ignoreCase, to, last, 0, last.length())) {
+			return false;
+		}
+		for (int i = 1, n = parts.length - 1; i < n; i++) {
+			String part = parts[i];
+			int length = part.length();
+			while (from + length <= to && !name.regionMatches(ignoreCase, from, part, 0, length)) {
+				from++;
+			}
+			if (from + length > to) {
+				return false;
+			}
+			from += length;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+/**
+ * A {@link JsonNumbers} contains the rules for numbers in a JSON text.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+final class JsonNumbers {
+
+	private static final int CACHE_LOW = -128;
+
+	private static final int CACHE_HIGH = 4095;
+
+	private static final String[] CACHE = new String[CACHE_HIGH - CACHE_LOW + 1];
+
+	static {
+		for (int i = 0; i < CACHE.length; i++) {
+			CACHE[i] = Long.toString(CACHE_LOW + i);
+		}
+	}
+
+	private JsonNumbers() {
+	}
+
+	/**
+	 * Returns the rendered form of the given long value. Rendered forms of
+	 * small values (between {@literal -128} and {@literal 4095}) are
+	 * precomputed, such that appending them is a single array copy.
+	 * 
+	 * @param value
+	 *            The value to be rendered.
+	 * @return The rendered form of the given value.
+	 */
+	static String toString(long value) {
+		if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+			return CACHE[(int) value - CACHE_LOW];
+		} else {
+			return Long.toString(value);
+		}
+	}
+
+	/**
+	 * Returns whether the given {@link CharSequence} is a number literal, as
+	 * described in RFC 7159.
+	 * 
+	 * @param literal
+	 *            The {@link CharSequence} to be examined.
+	 * @return Whether the given {@link CharSequence} is a number literal.
+	 */
+	static boolean isLiteral(CharSequence literal) {
+		int length = literal.length();
+		int index = 0;
+		if (index < length && '-' == literal.charAt(index)) {
+			index++;
+		}
+		if (index == length) {
+			return false;
+		} else if ('0' == literal.charAt(index)) {
+			index++;
+		} else {
+			int digits = skipDigits(literal, index, length);
+			if (digits == index) {
+				return false;
+			}
+			index = digits;
+		}
+		if (index < length && '.' == literal.charAt(index)) {
+			int digits = skipDigits(literal, ++index, length);
+			if (digits == index) {
+				return false;
+			}
+			index = digits;
+		}
+		if (index < length && ('e' == literal.charAt(index) || 'E' == literal.charAt(index))) {
+			index++;
+			if (index < length && ('+' == literal.charAt(index) || '-' == literal.charAt(index))) {
+				index++;
+			}
+			int digits = skipDigits(literal, index, length);
+			if (digits == index) {
+				return false;
+			}
+			index = digits;
+		}
+		return index == length;
+	}
+
+	private static int skipDigits(CharSequence literal, int index, int length) {
+		while (index < length) {
+			char character = literal.charAt(index);
+			if (character < '0' || character > '9') {
+				break;
+			}
+			index++;
+		}
+		return index;
+	}
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeSet;
+
+/**
+ * A {@link JsonPathFilter} is a compiled set of include and exclude paths that
+ * can be used with a {@link FilteringJsonHandler}.
+ * 
+ * <p>
+ * Paths are given as JSON Pointers (e.g. {@literal /foo/0/bar}, see RFC 6901),
+ * where a segment that consists of a single {@literal *} matches every name or
+ * index. The empty path {@literal ""} matches the whole document.
+ * 
+ * <p>
+ * A value is included, if no include paths are given or if it, or one of its
+ * ancestors, is matched by an include path. A value is excluded, if it, or one
+ * of its ancestors, is matched by an exclude path. Exclude paths take
+ * precedence over include paths.
+ * 
+ * <p>
+ * All paths are compiled into a single deterministic trie, such that the
+ * filter state for every value can be obtained with a single lookup. A
+ * {@link JsonPathFilter} is immutable and can be shared between multiple
+ * handlers.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonPathFilter {
+
+	private static final String WILDCARD = "*";
+
+	private final Node root;
+
+	private final boolean includeAll;
+
+	/**
+	 * Creates a new {@link JsonPathFilter}.
+	 * 
+	 * @param includes
+	 *            The include paths. May be empty, in which case every value
+	 *            that is not excluded is included.
+	 * @param excludes
+	 *            The exclude paths.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given include or exclude paths are {@literal null},
+	 *             contain {@literal null} or contain an invalid JSON Pointer.
+	 */
+	public JsonPathFilter(Iterable<String> includes, Iterable<String> excludes) throws IllegalArgumentException {
+		if (null == includes) {
+			throw new IllegalArgumentException("The given includes are null");
+		}
+		if (null == excludes) {
+			throw new IllegalArgumentException("The given excludes are null");
+		}
+		PathNode pathRoot = new PathNode();
+		boolean hasIncludes = false;
+		for (String include : includes) {
+			pathRoot.add(parse(include)).include = true;
+			hasIncludes = true;
+		}
+		for (String exclude : excludes) {
+			pathRoot.add(parse(exclude)).exclude = true;
+		}
+		this.root = compile(Collections.singletonList(pathRoot));
+		this.includeAll = !hasIncludes;
+	}
+
+	Node getRoot() {
+		return root;
+	}
+
+	boolean isIncludeAll() {
+		return includeAll;
+	}
+
+	private static List<String> parse(String path) throws IllegalArgumentException {
+		if (null == path) {
+			throw new IllegalArgumentException("The given paths contain null");
+		}
+		List<String> segments = new ArrayList<String>();
+		if (0 != path.length()) {
+			if ('/' != path.charAt(0)) {
+				throw new IllegalArgumentException("The given path '" + path + "' doesn't start with a slash");
+			}
+			int start = 1;
+			for (int i = 1, n = path.length(); i <= n; i++) {
+				if (i == n || '/' == path.charAt(i)) {
+					segments.add(unescape(path, start, i));
+					start = i + 1;
+				}
+			}
+		}
+		return segments;
+	}
+
+	private static String unescape(String path, int from, int to) throws IllegalArgumentException {
+		int escape = path.indexOf('~', from);
+		if (-1 == escape || escape >= to) {
+			return path.substring(from, to);
+		}
+		StringBuilder builder = new StringBuilder(to - from);
+		for (int i = from; i < to; i++) {
+			char character = path.charAt(i);
+			if ('~' == character) {
+				char next = i + 1 < to ? path.charAt(++i) : 0;
+				if ('0' == next) {
+					builder.append('~');
+				} else if ('1' == next) {
+					builder.append('/');
+				} else {
+					throw new IllegalArgumentException("The given path '" + path + "' contains an invalid escape sequence");
+				}
+			} else {
+				builder.append(character);
+			}
+		}
+		return builder.toString();
+	}
+
+	private static Node compile(List<PathNode> pathNodes) {
+		boolean include = false;
+		boolean exclude = false;
+		TreeSet<String> names = new TreeSet<String>();
+		List<PathNode> wildcards = new ArrayList<PathNode>();
+		for (PathNode pathNode : pathNodes) {
+			include |= pathNode.include;
+			exclude |= pathNode.exclude;
+			names.addAll(pathNode.children.keySet());
+			if (null != pathNode.wildcard) {
+				wildcards.add(pathNode.wildcard);
+			}
+		}
+		if (exclude) {
+			return new Node(false, true, Collections.<String, Node> emptyMap(), null);
+		}
+		Map<String, Node> children = new HashMap<String, Node>();
+		for (String name : names) {
+			List<PathNode> matchingPathNodes = new ArrayList<PathNode>();
+			for (PathNode pathNode : pathNodes) {
+				PathNode child = pathNode.children.get(name);
+				if (null != child) {
+					matchingPathNodes.add(child);
+				}
+				if (null != pathNode.wildcard) {
+					matchingPathNodes.add(pathNode.wildcard);
+				}
+			}
+			children.put(name, compile(matchingPathNodes));
+		}
+		Node wildcard = wildcards.isEmpty() ? null : compile(wildcards);
+		return new Node(include, false, children, wildcard);
+	}
+
+	private static final class PathNode {
+
+		private final Map<String, PathNode> children = new HashMap<String, PathNode>();
+
+		private PathNode wildcard;
+
+		private boolean include;
+
+		private boolean exclude;
+
+		private PathNode add(List<String> segments) {
+			PathNode node = this;
+			for (String segment : segments) {
+				PathNode child;
+				if (WILDCARD.equals(segment)) {
+					child = node.wildcard;
+					if (null == child) {
+						child = node.wildcard = new PathNode();
+					}
+				} else {
+					child = node.children.get(segment);
+					if (null == child) {
+						child = new PathNode();
+						node.children.put(segment, child);
+					}
+				}
+				node = child;
+			}
+			return node;
+		}
+
+	}
+
+	static final class Node {
+
+		private final boolean include;
+
+		private final boolean exclude;
+
+		private final boolean excludeBelow;
+
+		private final Map<String, Node> children;
+
+		private final Node wildcard;
+
+		private Node(boolean include, boolean exclude, Map<String, Node> children, Node wildcard) {
+			this.include = include;
+			this.exclude = exclude;
+			this.children = children;
+			this.wildcard = wildcard;
+			boolean excludeBelow = null != wildcard && (wildcard.exclude || wildcard.excludeBelow);
+			for (Entry<String, Node> entry : children.entrySet()) {
+				excludeBelow |= entry.getValue().exclude || entry.getValue().excludeBelow;
+			}
+			this.excludeBelow = excludeBelow;
+		}
+
+		boolean isIncluded() {
+			return include;
+		}
+
+		boolean isExcluded() {
+			return exclude;
+		}
+
+		boolean hasExcludeBelow() {
+			return excludeBelow;
+		}
+
+		boolean hasChildren() {
+			return null != wildcard || !children.isEmpty();
+		}
+
+		Node getChild(String name) {
+			Node child = children.get(name);
+			return null == child ? wildcard : child;
+		}
+
+		Node getChild(int index) {
+			return children.isEmpty() ? wildcard : getChild(Integer.toString(index));
+		}
+
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.handler.JsonHandler;
+
+/**
+ * A {@link JsonProducer} describes a JSON value by reporting the corresponding
+ * events to a given {@link JsonHandler}.
+ * 
+ * <p>
+ * A {@link JsonProducer} must neither call
+ * {@link JsonHandler#onDocumentBegin()} nor {@link JsonHandler#onDocumentEnd()}
+ * and must report exactly one value.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public interface JsonProducer {
+
+	/**
+	 * Reports the events that describe the JSON value of this
+	 * {@link JsonProducer} to the given {@link JsonHandler}.
+	 * 
+	 * @param handler
+	 *            The {@link JsonHandler} to report to.
+	 * @throws JsonException
+	 *             If the given {@link JsonHandler} couldn't handle an event.
+	 */
+	public void produce(JsonHandler<?> handler) throws JsonException;
+
+}
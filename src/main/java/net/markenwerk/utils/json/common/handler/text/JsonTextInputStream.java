@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.Executor;
+
+import net.markenwerk.utils.text.indentation.Indentation;
+
+/**
+ * A {@link JsonTextInputStream} is an {@link InputStream} that reads the UTF-8
+ * encoded JSON text for the JSON document described by a given
+ * {@link JsonProducer}.
+ * 
+ * <p>
+ * The JSON text is rendered on demand by a {@link JsonTextReader}, so that the
+ * memory consumption of a {@link JsonTextInputStream} doesn't depend on the
+ * size of the JSON document.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonTextInputStream extends InputStream {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int BUFFER_SIZE = 4096;
+
+	private final JsonTextReader reader;
+
+	private final CharsetEncoder encoder;
+
+	private final CharBuffer characters = CharBuffer.allocate(BUFFER_SIZE);
+
+	private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE * 3);
+
+	private boolean endOfInput;
+
+	private boolean done;
+
+	/**
+	 * Creates a new {@link JsonTextInputStream} using the
+	 * {@link Indentation#DEFAULT default} {@link Indentation}.
+	 * 
+	 * @param producer
+	 *            The {@link JsonProducer} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonProducer} is {@literal null}.
+	 */
+	public JsonTextInputStream(JsonProducer producer) throws IllegalArgumentException {
+		this(new JsonTextReader(producer));
+	}
+
+	/**
+	 * Creates a new {@link JsonTextInputStream}.
+	 * 
+	 * @param producer
+	 *            The {@link JsonProducer} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonProducer} is {@literal null} or if
+	 *             the given {@link Indentation} is {@literal null}.
+	 */
+	public JsonTextInputStream(JsonProducer producer, Indentation indentation) throws IllegalArgumentException {
+		this(new JsonTextReader(producer, indentation));
+	}
+
+	/**
+	 * Creates a new {@link JsonTextInputStream}.
+	 * 
+	 * @param producer
+	 *            The {@link JsonProducer} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param executor
+	 *            The {@link Executor} to run the rendering thread with.
+	 * @param chunkSize
+	 *            The number of characters per chunk.
+	 * @param chunkCount
+	 *            The maximum number of rendered chunks, that haven't been read
+	 *            yet.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonProducer} is {@literal null}, if the
+	 *             given {@link Indentation} is {@literal null}, if the given
+	 *             {@link Executor} is {@literal null} or if the given chunk
+	 *             size or chunk count is not positive.
+	 */
+	public JsonTextInputStream(JsonProducer producer, Indentation indentation, Executor executor, int chunkSize,
+			int chunkCount) throws IllegalArgumentException {
+		this(new JsonTextReader(producer, indentation, executor, chunkSize, chunkCount));
+	}
+
+	private JsonTextInputStream(JsonTextReader reader) {
+		this.reader = reader;
+		this.encoder = UTF_8.newEncoder();
+		encoder.onMalformedInput(CodingErrorAction.REPLACE);
+		encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		characters.flip();
+		bytes.flip();
+	}
+
+	@Override
+	public int read() throws IOException {
+		while (!bytes.hasRemaining()) {
+			if (!fill()) {
+				return -1;
+			}
+		}
+		return bytes.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (offset < 0 || length < 0 || offset + length > buffer.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (0 == length) {
+			return 0;
+		}
+		while (!bytes.hasRemaining()) {
+			if (!fill()) {
+				return -1;
+			}
+		}
+		int count = Math.min(length, bytes.remaining());
+		bytes.get(buffer, offset, count);
+		return count;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return bytes.remaining();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private boolean fill() throws IOException {
+		if (done) {
+			return false;
+		}
+		characters.compact();
+		if (!endOfInput) {
+			int count = reader.read(characters.array(), characters.position(), characters.remaining());
+			if (-1 == count) {
+				endOfInput = true;
+			} else {
+				characters.position(characters.position() + count);
+			}
+		}
+		characters.flip();
+		bytes.clear();
+		encoder.encode(characters, bytes, endOfInput);
+		if (endOfInput) {
+			encoder.flush(bytes);
+			done = true;
+		}
+		bytes.flip();
+		return true;
+	}
+
+}
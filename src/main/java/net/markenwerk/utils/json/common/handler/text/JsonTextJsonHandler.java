@@ -60,6 +60,67 @@ public final class JsonTextJsonHandler extends AbstractAppendingJsonTextJsonHand
 		super(new StringBuilder(), indentation);
 	}
 
+	/**
+	 * Creates a new {@link JsonTextJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 * @since 2.1.0
+	 */
+	public JsonTextJsonHandler(Indentation indentation, boolean asciiSafe) {
+		super(new StringBuilder(), indentation, asciiSafe);
+	}
+
+	/**
+	 * Creates a new {@link JsonTextJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} or the given
+	 *             {@link DoubleFormat} is {@literal null}.
+	 * @since 2.1.0
+	 */
+	public JsonTextJsonHandler(Indentation indentation, boolean asciiSafe, DoubleFormat doubleFormat) {
+		super(new StringBuilder(), indentation, asciiSafe, doubleFormat);
+	}
+
+	/**
+	 * Creates a new {@link JsonTextJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * @param parallelEscaping
+	 *            The {@link ParallelEscaping} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation}, the given
+	 *             {@link DoubleFormat} or the given {@link ParallelEscaping} is
+	 *             {@literal null}.
+	 * @since 2.1.0
+	 */
+	public JsonTextJsonHandler(Indentation indentation, boolean asciiSafe, DoubleFormat doubleFormat,
+			ParallelEscaping parallelEscaping) {
+		super(new StringBuilder(), indentation, asciiSafe, doubleFormat, parallelEscaping);
+	}
+
 	@Override
 	public String getResult() throws JsonException {
 		return getAppendable().toString();
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+/**
+ * A {@link JsonTextReader} is a {@link Reader} that reads the JSON text for the
+ * JSON document described by a given {@link JsonProducer}.
+ * 
+ * <p>
+ * The JSON text is rendered on demand by an {@link AppendingJsonTextJsonHandler}
+ * in a separate thread into a bounded number of chunks. The rendering thread
+ * blocks while all chunks are full, so that the memory consumption of a
+ * {@link JsonTextReader} doesn't depend on the size of the JSON document.
+ * 
+ * <p>
+ * The rendering thread is started when the first character is read. By
+ * default, a new daemon thread is used. A custom {@link Executor} (e.g. one that
+ * uses virtual threads on newer JVMs) can be supplied instead.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonTextReader extends Reader {
+
+	private static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	private static final int DEFAULT_CHUNK_COUNT = 4;
+
+	private static final Executor THREAD_EXECUTOR = new Executor() {
+
+		@Override
+		public void execute(Runnable runnable) {
+			Thread thread = new Thread(runnable, JsonTextReader.class.getSimpleName());
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+	};
+
+	private static final Chunk END = new Chunk(0);
+
+	private final JsonProducer producer;
+
+	private final Indentation indentation;
+
+	private final Executor executor;
+
+	private final int chunkSize;
+
+	private final BlockingQueue<Chunk> filledChunks;
+
+	private final BlockingQueue<Chunk> emptyChunks;
+
+	private final Object producerLock = new Object();
+
+	private Thread producerThread;
+
+	private volatile Throwable failure;
+
+	private boolean started;
+
+	private volatile boolean closed;
+
+	private Chunk chunk;
+
+	private int position;
+
+	/**
+	 * Creates a new {@link JsonTextReader} using the
+	 * {@link Indentation#DEFAULT default} {@link Indentation}.
+	 * 
+	 * @param producer
+	 *            The {@link JsonProducer} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonProducer} is {@literal null}.
+	 */
+	public JsonTextReader(JsonProducer producer) throws IllegalArgumentException {
+		this(producer, Indentation.DEFAULT);
+	}
+
+	/**
+	 * Creates a new {@link JsonTextReader}.
+	 * 
+	 * @param producer
+	 *            The {@link JsonProducer} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonProducer} is {@literal null} or if
+	 *             the given {@link Indentation} is {@literal null}.
+	 */
+	public JsonTextReader(JsonProducer producer, Indentation indentation) throws IllegalArgumentException {
+		this(producer, indentation, THREAD_EXECUTOR, DEFAULT_CHUNK_SIZE, DEFAULT_CHUNK_COUNT);
+	}
+
+	/**
+	 * Creates a new {@link JsonTextReader}.
+	 * 
+	 * @param producer
+	 *            The {@link JsonProducer} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param executor
+	 *            The {@link Executor} to run the rendering thread with.
+	 * @param chunkSize
+	 *            The number of characters per chunk.
+	 * @param chunkCount
+	 *            The maximum number of rendered chunks, that haven't been read
+	 *            yet.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonProducer} is {@literal null}, if the
+	 *             given {@link Indentation} is {@literal null}, if the given
+	 *             {@link Executor} is {@literal null} or if the given chunk
+	 *             size or chunk count is not positive.
+	 */
+	public JsonTextReader(JsonProducer producer, Indentation indentation, Executor executor, int chunkSize,
+			int chunkCount) throws IllegalArgumentException {
+		if (null == producer) {
+			throw new IllegalArgumentException("The given producer is null");
+		}
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (null == executor) {
+			throw new IllegalArgumentException("The given executor is null");
+		}
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("The given chunk size is not positive");
+		}
+		if (chunkCount <= 0) {
+			throw new IllegalArgumentException("The given chunk count is not positive");
+		}
+		this.producer = producer;
+		this.indentation = indentation;
+		this.executor = executor;
+		this.chunkSize = chunkSize;
+		this.filledChunks = new ArrayBlockingQueue<Chunk>(chunkCount);
+		this.emptyChunks = new ArrayBlockingQueue<Chunk>(chunkCount + 2);
+	}
+
+	@Override
+	public int read(char[] buffer, int offset, int length) throws IOException {
+		if (offset < 0 || length < 0 || offset + length > buffer.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (closed) {
+			throw new IOException("This reader has been closed");
+		}
+		if (0 == length) {
+			return 0;
+		}
+		if (!started) {
+			started = true;
+			executor.execute(new Producer());
+		}
+		while (null == chunk || position == chunk.length) {
+			if (END == chunk) {
+				return -1;
+			}
+			nextChunk();
+		}
+		int count = Math.min(length, chunk.length - position);
+		System.arraycopy(chunk.characters, position, buffer, offset, count);
+		position += count;
+		return count;
+	}
+
+	private void nextChunk() throws IOException {
+		if (null != chunk) {
+			emptyChunks.offer(chunk);
+		}
+		try {
+			chunk = filledChunks.take();
+			position = 0;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		if (END == chunk && null != failure) {
+			throw new IOException("Failed to render JSON text", failure);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			synchronized (producerLock) {
+				if (null != producerThread) {
+					producerThread.interrupt();
+				}
+			}
+		}
+	}
+
+	private static final class Chunk {
+
+		private final char[] characters;
+
+		private int length;
+
+		private Chunk(int size) {
+			characters = new char[size];
+		}
+
+	}
+
+	private final class Producer implements Runnable, Appendable {
+
+		private Chunk chunk;
+
+		@Override
+		public void run() {
+			synchronized (producerLock) {
+				producerThread = Thread.currentThread();
+			}
+			try {
+				if (!closed) {
+					JsonHandler<Void> handler = new AppendingJsonTextJsonHandler(this, indentation);
+					handler.onDocumentBegin();
+					producer.produce(handler);
+					handler.onDocumentEnd();
+					if (null != chunk && 0 != chunk.length) {
+						put(chunk);
+					}
+				}
+				put(END);
+			} catch (Throwable throwable) {
+				failure = throwable;
+				filledChunks.clear();
+				filledChunks.offer(END);
+			} finally {
+				synchronized (producerLock) {
+					producerThread = null;
+				}
+				// close() can no longer interrupt this thread, clear a pending interrupt
+				Thread.interrupted();
+			}
+		}
+
+		@Override
+		public Appendable append(CharSequence characters) throws IOException {
+			return append(characters, 0, characters.length());
+		}
+
+		@Override
+		public Appendable append(CharSequence characters, int start, int end) throws IOException {
+			while (start < end) {
+				Chunk chunk = currentChunk();
+				int count = Math.min(end - start, chunkSize - chunk.length);
+				if (characters instanceof String) {
+					((String) characters).getChars(start, start + count, chunk.characters, chunk.length);
+				} else {
+					for (int i = 0; i < count; i++) {
+						chunk.characters[chunk.length + i] = characters.charAt(start + i);
+					}
+				}
+				chunk.length += count;
+				start += count;
+			}
+			return this;
+		}
+
+		@Override
+		public Appendable append(char character) throws IOException {
+			Chunk chunk = currentChunk();
+			chunk.characters[chunk.length++] = character;
+			return this;
+		}
+
+		private Chunk currentChunk() throws IOException {
+			if (null != chunk && chunkSize == chunk.length) {
+				put(chunk);
+				chunk = null;
+			}
+			if (null == chunk) {
+				chunk = emptyChunks.poll();
+				if (null == chunk) {
+					chunk = new Chunk(chunkSize);
+				}
+				chunk.length = 0;
+			}
+			return chunk;
+		}
+
+		private void put(Chunk chunk) throws IOException {
+			try {
+				filledChunks.put(chunk);
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			}
+		}
+
+	}
+
+}
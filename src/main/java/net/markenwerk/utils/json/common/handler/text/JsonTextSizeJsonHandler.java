@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+/**
+ * A {@link JsonTextSizeJsonHandler} is a
+ * {@link AbstractAppendingJsonTextJsonHandler} that calculates the exact
+ * {@link TextSize} of the text that a {@link JsonTextJsonHandler} with the
+ * same configuration would calculate for the handled JSON document as a
+ * result, without storing that text.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonTextSizeJsonHandler extends AbstractAppendingJsonTextJsonHandler<CountingAppendable, TextSize> {
+
+	/**
+	 * Creates a new {@link JsonTextSizeJsonHandler} using the
+	 * {@link Indentation#DEFAULT default} Indentation.
+	 */
+	public JsonTextSizeJsonHandler() {
+		this(Indentation.DEFAULT);
+	}
+
+	/**
+	 * Creates a new {@link JsonTextSizeJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public JsonTextSizeJsonHandler(Indentation indentation) throws IllegalArgumentException {
+		super(new CountingAppendable(), indentation);
+	}
+
+	/**
+	 * Creates a new {@link JsonTextSizeJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be counted as unicode escape sequences.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public JsonTextSizeJsonHandler(Indentation indentation, boolean asciiSafe) throws IllegalArgumentException {
+		super(new CountingAppendable(), indentation, asciiSafe);
+	}
+
+	/**
+	 * Creates a new {@link JsonTextSizeJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be counted as unicode escape sequences.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} or the given
+	 *             {@link DoubleFormat} is {@literal null}.
+	 */
+	public JsonTextSizeJsonHandler(Indentation indentation, boolean asciiSafe, DoubleFormat doubleFormat)
+			throws IllegalArgumentException {
+		super(new CountingAppendable(), indentation, asciiSafe, doubleFormat);
+	}
+
+	@Override
+	public TextSize getResult() throws JsonException {
+		CountingAppendable appendable = getAppendable();
+		return new TextSize(appendable.getCharacterCount(), appendable.getByteCount());
+	}
+
+}
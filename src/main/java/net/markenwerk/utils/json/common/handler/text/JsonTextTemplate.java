@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+/**
+ * A {@link JsonTextTemplate} is a precompiled JSON text with a fixed shape,
+ * that consists of static segments and slots for values, that are supplied
+ * when the {@link JsonTextTemplate} is written with a
+ * {@link JsonTextTemplateWriter}.
+ * 
+ * <p>
+ * A {@link JsonTextTemplate} can be created with a
+ * {@link JsonTextTemplateCompiler} and is immutable and thread safe.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonTextTemplate {
+
+	private final String[] segments;
+
+	private final boolean asciiSafe;
+
+	JsonTextTemplate(String[] segments, boolean asciiSafe) {
+		this.segments = segments;
+		this.asciiSafe = asciiSafe;
+	}
+
+	/**
+	 * Returns the number of slots of this {@link JsonTextTemplate}.
+	 * 
+	 * @return The number of slots of this {@link JsonTextTemplate}.
+	 */
+	public int getSlotCount() {
+		return segments.length - 1;
+	}
+
+	/**
+	 * Creates a new {@link JsonTextTemplateWriter} that writes this
+	 * {@link JsonTextTemplate} to the given {@link Appendable}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to be used.
+	 * @return The new {@link JsonTextTemplateWriter}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} is {@literal null}.
+	 */
+	public JsonTextTemplateWriter newWriter(Appendable appendable) throws IllegalArgumentException {
+		return new JsonTextTemplateWriter(appendable, segments, asciiSafe);
+	}
+
+}
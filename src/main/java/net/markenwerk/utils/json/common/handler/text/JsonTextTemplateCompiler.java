@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+/**
+ * A {@link JsonTextTemplateCompiler} is a
+ * {@link AbstractAppendingJsonTextJsonHandler} that calculates a
+ * {@link JsonTextTemplate} for the handled JSON document as a result.
+ * 
+ * <p>
+ * Values that should be supplied when the {@link JsonTextTemplate} is written
+ * have to be reported with {@link JsonTextTemplateCompiler#onSlot()}, all other
+ * events are rendered into the static segments of the resulting
+ * {@link JsonTextTemplate}.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonTextTemplateCompiler extends
+		AbstractAppendingJsonTextJsonHandler<StringBuilder, JsonTextTemplate> {
+
+	private final List<String> segments = new ArrayList<String>();
+
+	private int segmentBegin;
+
+	/**
+	 * Creates a new {@link JsonTextTemplateCompiler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public JsonTextTemplateCompiler(Indentation indentation) throws IllegalArgumentException {
+		this(indentation, false);
+	}
+
+	/**
+	 * Creates a new {@link JsonTextTemplateCompiler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public JsonTextTemplateCompiler(Indentation indentation, boolean asciiSafe) throws IllegalArgumentException {
+		super(new StringBuilder(), indentation, asciiSafe);
+	}
+
+	/**
+	 * Reports a value that has to be supplied when the resulting
+	 * {@link JsonTextTemplate} is written.
+	 * 
+	 * @throws JsonException
+	 *             If the slot couldn't be handled.
+	 */
+	public void onSlot() throws JsonException {
+		onRawJson("");
+		StringBuilder builder = getAppendable();
+		segments.add(builder.substring(segmentBegin));
+		segmentBegin = builder.length();
+	}
+
+	@Override
+	public JsonTextTemplate getResult() throws JsonException {
+		String[] result = segments.toArray(new String[segments.size() + 1]);
+		result[segments.size()] = getAppendable().substring(segmentBegin);
+		return new JsonTextTemplate(result, isAsciiSafe());
+	}
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.handler.JsonHandlingException;
+
+/**
+ * A {@link JsonTextTemplateWriter} writes a {@link JsonTextTemplate} to a
+ * given {@link Appendable}.
+ * 
+ * <p>
+ * The values for the slots of the {@link JsonTextTemplate} have to be written
+ * in order. Every static segment of the {@link JsonTextTemplate} is appended as
+ * soon as all preceding values have been written.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class JsonTextTemplateWriter {
+
+	private final Appendable appendable;
+
+	private final String[] segments;
+
+	private final boolean asciiSafe;
+
+	private int slot;
+
+	JsonTextTemplateWriter(Appendable appendable, String[] segments, boolean asciiSafe)
+			throws IllegalArgumentException, JsonException {
+		if (null == appendable) {
+			throw new IllegalArgumentException("The given appendable is null");
+		}
+		this.appendable = appendable;
+		this.segments = segments;
+		this.asciiSafe = asciiSafe;
+		append(segments[0]);
+	}
+
+	/**
+	 * Returns whether values for all slots have been written.
+	 * 
+	 * @return Whether values for all slots have been written.
+	 */
+	public boolean isComplete() {
+		return slot == segments.length - 1;
+	}
+
+	/**
+	 * Writes {@literal null} into the next slot.
+	 * 
+	 * @throws IllegalStateException
+	 *             If values for all slots have already been written.
+	 * @throws JsonException
+	 *             If the value couldn't be written.
+	 */
+	public void writeNull() throws IllegalStateException, JsonException {
+		checkSlot();
+		append("null");
+		nextSlot();
+	}
+
+	/**
+	 * Writes a boolean into the next slot.
+	 * 
+	 * @param value
+	 *            The value to be written.
+	 * @throws IllegalStateException
+	 *             If values for all slots have already been written.
+	 * @throws JsonException
+	 *             If the value couldn't be written.
+	 */
+	public void writeBoolean(boolean value) throws IllegalStateException, JsonException {
+		checkSlot();
+		append(value ? "true" : "false");
+		nextSlot();
+	}
+
+	/**
+	 * Writes a long into the next slot.
+	 * 
+	 * @param value
+	 *            The value to be written.
+	 * @throws IllegalStateException
+	 *             If values for all slots have already been written.
+	 * @throws JsonException
+	 *             If the value couldn't be written.
+	 */
+	public void writeLong(long value) throws IllegalStateException, JsonException {
+		checkSlot();
+		append(JsonNumbers.toString(value));
+		nextSlot();
+	}
+
+	/**
+	 * Writes a double into the next slot.
+	 * 
+	 * @param value
+	 *            The value to be written.
+	 * @throws IllegalStateException
+	 *             If values for all slots have already been written.
+	 * @throws JsonValueException
+	 *             If the given value is {@link Double#isInfinite(double)
+	 *             infinite} or {@link Double#isNaN(double) not a number}.
+	 * @throws JsonException
+	 *             If the value couldn't be written.
+	 */
+	public void writeDouble(double value) throws IllegalStateException, JsonValueException, JsonException {
+		checkSlot();
+		if (Double.isInfinite(value) || Double.isNaN(value)) {
+			throw new JsonValueException("The given value is not a finite number");
+		}
+		append(Double.toString(value));
+		nextSlot();
+	}
+
+	/**
+	 * Writes a string into the next slot.
+	 * 
+	 * @param value
+	 *            The value to be written.
+	 * @throws IllegalStateException
+	 *             If values for all slots have already been written.
+	 * @throws JsonValueException
+	 *             If the given value is {@literal null}.
+	 * @throws JsonException
+	 *             If the value couldn't be written.
+	 */
+	public void writeString(String value) throws IllegalStateException, JsonValueException, JsonException {
+		checkSlot();
+		if (null == value) {
+			throw new JsonValueException("The given value is null");
+		}
+		try {
+			appendable.append('"');
+			JsonEscaping.appendEscaped(appendable, value, 0, value.length(), asciiSafe);
+			appendable.append('"');
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+		nextSlot();
+	}
+
+	/**
+	 * Writes the given JSON text unchanged into the next slot.
+	 * 
+	 * @param json
+	 *            The JSON text to be written.
+	 * @throws IllegalStateException
+	 *             If values for all slots have already been written.
+	 * @throws JsonValueException
+	 *             If the given JSON text is {@literal null}.
+	 * @throws JsonException
+	 *             If the value couldn't be written.
+	 */
+	public void writeRawJson(CharSequence json) throws IllegalStateException, JsonValueException, JsonException {
+		checkSlot();
+		if (null == json) {
+			throw new JsonValueException("The given JSON text is null");
+		}
+		append(json);
+		nextSlot();
+	}
+
+	private void checkSlot() throws IllegalStateException {
+		if (isComplete()) {
+			throw new IllegalStateException("Values for all slots have already been written");
+		}
+	}
+
+	private void nextSlot() throws JsonException {
+		append(segments[++slot]);
+	}
+
+	private void append(CharSequence string) throws JsonException {
+		try {
+			appendable.append(string);
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+	}
+
+}
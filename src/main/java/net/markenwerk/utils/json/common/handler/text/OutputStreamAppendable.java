@@ -0,0 +1,544 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.BitSet;
+
+/**
+ * An {@link OutputStreamAppendable} is an {@link Appendable} that encodes all
+ * appended characters with a given {@link Charset} (UTF-8, by default) and
+ * writes the resulting bytes to a given {@link OutputStream}.
+ * 
+ * <p>
+ * Bytes are collected in an internal buffer, that is written to the
+ * {@link OutputStream} when it is full or when the
+ * {@link OutputStreamAppendable} is {@link OutputStreamAppendable#flush()
+ * flushed}. Surrogate pairs may be split across multiple calls to
+ * {@code append}. Unpaired surrogates and characters that can't be
+ * represented in the given {@link Charset} are encoded as {@literal ?}.
+ * 
+ * <p>
+ * UTF-8, ISO-8859-1 and US-ASCII are encoded directly into the internal
+ * buffer. All other {@link Charset Charsets} are encoded with a single reused
+ * {@link CharsetEncoder}.
+ * 
+ * <p>
+ * Internal buffers are obtained from a {@link BufferRecycler} when they are
+ * needed and returned to it when the {@link OutputStreamAppendable} is closed.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class OutputStreamAppendable implements Appendable, Flushable, Closeable {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+	private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+	private static final int BUFFER_SIZE = BufferRecycler.BYTE_BUFFER_SIZE;
+
+	private static final byte REPLACEMENT = '?';
+
+	private static final int UTF_8_MODE = 0;
+
+	private static final int SINGLE_BYTE_MODE = 1;
+
+	private static final int ENCODER_MODE = 2;
+
+	private final OutputStream outputStream;
+
+	private final Charset charset;
+
+	private final boolean escaping;
+
+	private final int mode;
+
+	private final int limit;
+
+	private byte[] buffer;
+
+	private int position;
+
+	private char highSurrogate;
+
+	private final CharsetEncoder encoder;
+
+	private final CharsetEncoder probe;
+
+	private CharBuffer characters;
+
+	private ByteBuffer bytes;
+
+	private final BitSet probed;
+
+	private final BitSet encodable;
+
+	/**
+	 * Creates a new {@link OutputStreamAppendable} that uses UTF-8.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null}.
+	 */
+	public OutputStreamAppendable(OutputStream outputStream) throws IllegalArgumentException {
+		this(outputStream, UTF_8);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamAppendable}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null} or if
+	 *             the given {@link Charset} is {@literal null} or doesn't
+	 *             support encoding.
+	 */
+	public OutputStreamAppendable(OutputStream outputStream, Charset charset) throws IllegalArgumentException {
+		this(outputStream, charset, false);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamAppendable}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * @param escaping
+	 *            Whether characters that can't be represented in the given
+	 *            {@link Charset} should be written as JSON unicode escape
+	 *            sequences, instead of {@literal ?}. Surrogate pairs that
+	 *            can't be represented are written as two escape sequences.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null} or if
+	 *             the given {@link Charset} is {@literal null} or doesn't
+	 *             support encoding.
+	 */
+	OutputStreamAppendable(OutputStream outputStream, Charset charset, boolean escaping)
+			throws IllegalArgumentException {
+		if (null == outputStream) {
+			throw new IllegalArgumentException("The given output stream is null");
+		}
+		if (null == charset) {
+			throw new IllegalArgumentException("The given charset is null");
+		}
+		if (!charset.canEncode()) {
+			throw new IllegalArgumentException("The given charset doesn't support encoding");
+		}
+		this.outputStream = outputStream;
+		this.charset = charset;
+		this.escaping = escaping;
+		if (UTF_8.equals(charset)) {
+			mode = UTF_8_MODE;
+			limit = 0x80;
+		} else if (ISO_8859_1.equals(charset)) {
+			mode = SINGLE_BYTE_MODE;
+			limit = 0x100;
+		} else if (US_ASCII.equals(charset)) {
+			mode = SINGLE_BYTE_MODE;
+			limit = 0x80;
+		} else {
+			mode = ENCODER_MODE;
+			limit = 0;
+		}
+		if (ENCODER_MODE == mode) {
+			encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			probe = charset.newEncoder();
+			probed = new BitSet(0x10000);
+			encodable = new BitSet(0x10000);
+		} else {
+			encoder = null;
+			probe = null;
+			probed = null;
+			encodable = null;
+		}
+	}
+
+	/**
+	 * Returns the {@link Charset} this {@link OutputStreamAppendable} encodes
+	 * characters with.
+	 * 
+	 * @return The {@link Charset}.
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+	boolean isUtf8() {
+		return UTF_8_MODE == mode;
+	}
+
+	@Override
+	public Appendable append(CharSequence characters) throws IOException {
+		return append(characters, 0, characters.length());
+	}
+
+	@Override
+	public Appendable append(CharSequence characters, int start, int end) throws IOException {
+		if (null == buffer) {
+			acquireBuffers();
+		}
+		switch (mode) {
+		case UTF_8_MODE:
+		case SINGLE_BYTE_MODE:
+			for (int i = start; i < end; i++) {
+				char character = characters.charAt(i);
+				if (character < limit && 0 == highSurrogate) {
+					if (position == BUFFER_SIZE) {
+						flushBuffer();
+					}
+					buffer[position++] = (byte) character;
+				} else {
+					encode(character);
+				}
+			}
+			break;
+		default:
+			for (int i = start; i < end; i++) {
+				encode(characters.charAt(i));
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public Appendable append(char character) throws IOException {
+		if (null == buffer) {
+			acquireBuffers();
+		}
+		encode(character);
+		return this;
+	}
+
+	/**
+	 * Writes the given range of the given array of bytes unchanged. Must only
+	 * be used, if this {@link OutputStreamAppendable} uses UTF-8.
+	 * 
+	 * @param bytes
+	 *            The array of bytes to be written.
+	 * @param offset
+	 *            The index of the first byte to be written.
+	 * @param length
+	 *            The number of bytes to be written.
+	 * @throws IOException
+	 *             If the bytes couldn't be written.
+	 */
+	void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+		if (null == buffer) {
+			acquireBuffers();
+		}
+		flushHighSurrogate();
+		if (length > BUFFER_SIZE - position) {
+			flushBuffer();
+			if (length > BUFFER_SIZE) {
+				outputStream.write(bytes, offset, length);
+				return;
+			}
+		}
+		System.arraycopy(bytes, offset, buffer, position, length);
+		position += length;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (ENCODER_MODE == mode && null != buffer) {
+			encodeCharacters(false);
+		}
+		flushBuffer();
+		outputStream.flush();
+	}
+
+	/**
+	 * Writes all collected bytes to the {@link OutputStream} and returns the
+	 * internal buffers to the {@link BufferRecycler}. The internal buffers are
+	 * obtained again, if further characters are appended.
+	 * 
+	 * @throws IOException
+	 *             If the collected bytes couldn't be written.
+	 */
+	void release() throws IOException {
+		if (null != buffer) {
+			if (ENCODER_MODE == mode) {
+				encodeCharacters(false);
+			}
+			flushBuffer();
+			if (ENCODER_MODE != mode || 0 == characters.position()) {
+				releaseBuffers();
+			}
+		}
+	}
+
+	/**
+	 * Completes the encoding of all appended characters, writes all collected
+	 * bytes to the {@link OutputStream} and returns the internal buffers to the
+	 * {@link BufferRecycler}. A pending high surrogate is written as a
+	 * replacement character (or as a unicode escape sequence, if this
+	 * {@link OutputStreamAppendable} escapes characters that can't be
+	 * represented) and a stateful {@link Charset} writes its trailing
+	 * bytes (e.g. the shift sequence back into ASCII), after which further
+	 * characters are encoded as if nothing had been appended before.
+	 * 
+	 * @throws IOException
+	 *             If the collected bytes couldn't be written.
+	 */
+	void finish() throws IOException {
+		if (null == buffer) {
+			if (ENCODER_MODE != mode && 0 == highSurrogate) {
+				return;
+			}
+			acquireBuffers();
+		}
+		complete();
+		flushBuffer();
+		releaseBuffers();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (null == buffer) {
+			acquireBuffers();
+		}
+		complete();
+		flushBuffer();
+		releaseBuffers();
+		outputStream.close();
+	}
+
+	private void complete() throws IOException {
+		if (ENCODER_MODE == mode) {
+			if (0 != highSurrogate) {
+				putEscaped(highSurrogate);
+				highSurrogate = 0;
+			}
+			encodeCharacters(true);
+			bytes.clear();
+			bytes.position(position);
+			while (encoder.flush(bytes).isOverflow()) {
+				position = bytes.position();
+				flushBuffer();
+				bytes.clear();
+			}
+			position = bytes.position();
+			encoder.reset();
+		} else {
+			flushHighSurrogate();
+			highSurrogate = 0;
+		}
+	}
+
+	private void acquireBuffers() {
+		buffer = BufferRecycler.acquireByteBuffer();
+		if (ENCODER_MODE == mode) {
+			characters = CharBuffer.wrap(BufferRecycler.acquireCharBuffer());
+			bytes = ByteBuffer.wrap(buffer);
+		}
+	}
+
+	private void releaseBuffers() {
+		if (ENCODER_MODE == mode) {
+			BufferRecycler.releaseCharBuffer(characters.array());
+			characters = null;
+			bytes = null;
+		}
+		BufferRecycler.releaseByteBuffer(buffer);
+		buffer = null;
+	}
+
+	private void encode(char character) throws IOException {
+		switch (mode) {
+		case UTF_8_MODE:
+			encodeUtf8(character);
+			break;
+		case SINGLE_BYTE_MODE:
+			encodeSingleByte(character);
+			break;
+		default:
+			encodeWithEncoder(character);
+		}
+	}
+
+	private void encodeUtf8(char character) throws IOException {
+		if (position > BUFFER_SIZE - 4) {
+			flushBuffer();
+		}
+		if (0 != highSurrogate) {
+			if (Character.isLowSurrogate(character)) {
+				int codePoint = Character.toCodePoint(highSurrogate, character);
+				highSurrogate = 0;
+				buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+				buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+				return;
+			} else {
+				highSurrogate = 0;
+				buffer[position++] = REPLACEMENT;
+			}
+		}
+		if (character < 0x80) {
+			buffer[position++] = (byte) character;
+		} else if (character < 0x800) {
+			buffer[position++] = (byte) (0xC0 | (character >> 6));
+			buffer[position++] = (byte) (0x80 | (character & 0x3F));
+		} else if (Character.isHighSurrogate(character)) {
+			highSurrogate = character;
+		} else if (Character.isLowSurrogate(character)) {
+			buffer[position++] = REPLACEMENT;
+		} else {
+			buffer[position++] = (byte) (0xE0 | (character >> 12));
+			buffer[position++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+			buffer[position++] = (byte) (0x80 | (character & 0x3F));
+		}
+	}
+
+	private void encodeSingleByte(char character) throws IOException {
+		if (position > BUFFER_SIZE - 6) {
+			flushBuffer();
+		}
+		if (0 != highSurrogate) {
+			highSurrogate = 0;
+			if (Character.isLowSurrogate(character)) {
+				return;
+			}
+		}
+		if (character < limit) {
+			buffer[position++] = (byte) character;
+		} else if (escaping) {
+			buffer[position++] = '\\';
+			buffer[position++] = 'u';
+			buffer[position++] = (byte) JsonEscaping.HEX_DIGITS[(character >> 12) & 0xF];
+			buffer[position++] = (byte) JsonEscaping.HEX_DIGITS[(character >> 8) & 0xF];
+			buffer[position++] = (byte) JsonEscaping.HEX_DIGITS[(character >> 4) & 0xF];
+			buffer[position++] = (byte) JsonEscaping.HEX_DIGITS[character & 0xF];
+		} else {
+			buffer[position++] = REPLACEMENT;
+			if (Character.isHighSurrogate(character)) {
+				highSurrogate = character;
+			}
+		}
+	}
+
+	private void encodeWithEncoder(char character) throws IOException {
+		if (!escaping) {
+			put(character);
+		} else if (0 != highSurrogate) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if (Character.isLowSurrogate(character)) {
+				if (probe.canEncode(new String(new char[] { high, character }))) {
+					put(high);
+					put(character);
+				} else {
+					putEscaped(high);
+					putEscaped(character);
+				}
+			} else {
+				putEscaped(high);
+				encodeWithEncoder(character);
+			}
+		} else if (Character.isHighSurrogate(character)) {
+			highSurrogate = character;
+		} else if (Character.isLowSurrogate(character)) {
+			putEscaped(character);
+		} else if (character >= 0x80 && !canEncode(character)) {
+			putEscaped(character);
+		} else {
+			put(character);
+		}
+	}
+
+	private void putEscaped(char character) throws IOException {
+		put('\\');
+		put('u');
+		put(JsonEscaping.HEX_DIGITS[(character >> 12) & 0xF]);
+		put(JsonEscaping.HEX_DIGITS[(character >> 8) & 0xF]);
+		put(JsonEscaping.HEX_DIGITS[(character >> 4) & 0xF]);
+		put(JsonEscaping.HEX_DIGITS[character & 0xF]);
+	}
+
+	private boolean canEncode(char character) {
+		if (!probed.get(character)) {
+			probed.set(character);
+			if (probe.canEncode(character)) {
+				encodable.set(character);
+			}
+		}
+		return encodable.get(character);
+	}
+
+	private void put(char character) throws IOException {
+		if (!characters.hasRemaining()) {
+			encodeCharacters(false);
+		}
+		characters.put(character);
+	}
+
+	private void encodeCharacters(boolean endOfInput) throws IOException {
+		characters.flip();
+		bytes.clear();
+		bytes.position(position);
+		while (encoder.encode(characters, bytes, endOfInput).isOverflow()) {
+			position = bytes.position();
+			flushBuffer();
+			bytes.clear();
+		}
+		position = bytes.position();
+		characters.compact();
+	}
+
+	private void flushHighSurrogate() throws IOException {
+		if (UTF_8_MODE == mode && 0 != highSurrogate) {
+			highSurrogate = 0;
+			if (position == BUFFER_SIZE) {
+				flushBuffer();
+			}
+			buffer[position++] = REPLACEMENT;
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (0 != position) {
+			outputStream.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+}
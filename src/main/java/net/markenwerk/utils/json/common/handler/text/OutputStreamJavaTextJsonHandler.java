@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.handler.JsonHandlingException;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+/**
+ * A {@link OutputStreamJavaTextJsonHandler} is a
+ * {@link AbstractAppendingJavaTextJsonHandler} that writes a text, that mimics
+ * the {@link Object#toString()} behavior of Java's collection classes, for the
+ * handled JSON document to a given {@link OutputStream}, using UTF-8 or a
+ * given {@link Charset}, and calculates no result.
+ * 
+ * <p>
+ * Characters that can't be represented in the given {@link Charset} are
+ * written as {@literal ?}. The given {@link OutputStream} is flushed, but not
+ * closed, when the JSON document ends.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class OutputStreamJavaTextJsonHandler extends
+		AbstractAppendingJavaTextJsonHandler<OutputStreamAppendable, Void> {
+
+	/**
+	 * Creates a new {@link OutputStreamJavaTextJsonHandler} using UTF-8 and
+	 * the {@link Indentation#INVISIBLE invisible} {@link Indentation}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null}.
+	 */
+	public OutputStreamJavaTextJsonHandler(OutputStream outputStream) throws IllegalArgumentException {
+		this(outputStream, Charset.forName("UTF-8"), Indentation.INVISIBLE);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamJavaTextJsonHandler}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream}, the given {@link Charset}
+	 *             or the given {@link Indentation} is {@literal null}.
+	 */
+	public OutputStreamJavaTextJsonHandler(OutputStream outputStream, Charset charset, Indentation indentation)
+			throws IllegalArgumentException {
+		this(outputStream, charset, indentation, DoubleFormat.SHORTEST);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamJavaTextJsonHandler}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream}, the given {@link Charset},
+	 *             the given {@link Indentation} or the given
+	 *             {@link DoubleFormat} is {@literal null}.
+	 */
+	public OutputStreamJavaTextJsonHandler(OutputStream outputStream, Charset charset, Indentation indentation,
+			DoubleFormat doubleFormat) throws IllegalArgumentException {
+		super(new OutputStreamAppendable(outputStream, charset), indentation, doubleFormat);
+	}
+
+	@Override
+	protected void endDocument() throws JsonException {
+		try {
+			getAppendable().finish();
+			getAppendable().flush();
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+	}
+
+	@Override
+	public Void getResult() throws JsonException {
+		return null;
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.handler.JsonHandlingException;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+/**
+ * A {@link OutputStreamJsonTextJsonHandler} is a
+ * {@link AbstractAppendingJsonTextJsonHandler} that writes the handled JSON
+ * document as a pretty JSON text to a given {@link OutputStream}, using UTF-8
+ * or a given {@link Charset}, and calculates no result.
+ * 
+ * <p>
+ * Characters in names and string values that can't be represented in the
+ * given {@link Charset} are written as unicode escape sequences.
+ * 
+ * <p>
+ * The given {@link OutputStream} is flushed, but not closed, when the JSON
+ * document ends.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class OutputStreamJsonTextJsonHandler extends
+		AbstractAppendingJsonTextJsonHandler<OutputStreamAppendable, Void> {
+
+	/**
+	 * Creates a new {@link OutputStreamJsonTextJsonHandler} using the
+	 * {@link Indentation#DEFAULT default} {@link Indentation}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null}.
+	 */
+	public OutputStreamJsonTextJsonHandler(OutputStream outputStream) throws IllegalArgumentException {
+		this(outputStream, Indentation.DEFAULT);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamJsonTextJsonHandler}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null} or if
+	 *             the given {@link Indentation} is {@literal null}.
+	 */
+	public OutputStreamJsonTextJsonHandler(OutputStream outputStream, Indentation indentation)
+			throws IllegalArgumentException {
+		this(outputStream, indentation, false);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamJsonTextJsonHandler}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null} or if
+	 *             the given {@link Indentation} is {@literal null}.
+	 */
+	public OutputStreamJsonTextJsonHandler(OutputStream outputStream, Indentation indentation, boolean asciiSafe)
+			throws IllegalArgumentException {
+		this(outputStream, indentation, asciiSafe, DoubleFormat.SHORTEST);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamJsonTextJsonHandler}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream}, the given
+	 *             {@link Indentation} or the given {@link DoubleFormat} is
+	 *             {@literal null}.
+	 */
+	public OutputStreamJsonTextJsonHandler(OutputStream outputStream, Indentation indentation, boolean asciiSafe,
+			DoubleFormat doubleFormat) throws IllegalArgumentException {
+		super(new OutputStreamAppendable(outputStream), indentation, asciiSafe, doubleFormat);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamJsonTextJsonHandler}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream}, the given {@link Charset}
+	 *             or the given {@link Indentation} is {@literal null}.
+	 */
+	public OutputStreamJsonTextJsonHandler(OutputStream outputStream, Charset charset, Indentation indentation)
+			throws IllegalArgumentException {
+		this(outputStream, charset, indentation, false, DoubleFormat.SHORTEST);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamJsonTextJsonHandler}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream}, the given {@link Charset},
+	 *             the given {@link Indentation} or the given
+	 *             {@link DoubleFormat} is {@literal null}.
+	 */
+	public OutputStreamJsonTextJsonHandler(OutputStream outputStream, Charset charset, Indentation indentation,
+			boolean asciiSafe, DoubleFormat doubleFormat) throws IllegalArgumentException {
+		super(new OutputStreamAppendable(outputStream, charset, true), indentation, asciiSafe, doubleFormat);
+	}
+
+	/**
+	 * Creates a new {@link OutputStreamJsonTextJsonHandler}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters in names and string values
+	 *            should be written as unicode escape sequences.
+	 * @param doubleFormat
+	 *            The {@link DoubleFormat} to be used.
+	 * @param parallelEscaping
+	 *            The {@link ParallelEscaping} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream}, the given {@link Charset},
+	 *             the given {@link Indentation}, the given {@link DoubleFormat}
+	 *             or the given {@link ParallelEscaping} is {@literal null}.
+	 */
+	public OutputStreamJsonTextJsonHandler(OutputStream outputStream, Charset charset, Indentation indentation,
+			boolean asciiSafe, DoubleFormat doubleFormat, ParallelEscaping parallelEscaping)
+			throws IllegalArgumentException {
+		super(new OutputStreamAppendable(outputStream, charset, true), indentation, asciiSafe, doubleFormat,
+				parallelEscaping);
+	}
+
+	/**
+	 * Writes the given range of the given array of UTF-8 encoded bytes as a
+	 * string value. Characters that need to be escaped are escaped and all
+	 * other bytes are copied unchanged, without decoding and encoding them.
+	 * It is therefore the responsibility of the caller to ensure that the
+	 * given bytes are valid UTF-8. If this
+	 * {@link OutputStreamJsonTextJsonHandler} doesn't use UTF-8, the bytes
+	 * are decoded and encoded again.
+	 * 
+	 * @param value
+	 *            The array of UTF-8 encoded bytes that contains the string
+	 *            value.
+	 * @param offset
+	 *            The index of the first byte of the string value.
+	 * @param length
+	 *            The number of bytes of the string value.
+	 * @throws JsonValueException
+	 *             If the given array of bytes is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset or length is out of bounds.
+	 * @throws JsonException
+	 *             If the string value couldn't be written.
+	 */
+	public void onUtf8String(byte[] value, int offset, int length) throws JsonValueException,
+			IndexOutOfBoundsException, JsonException {
+		if (null == value) {
+			throw new JsonValueException("The given value is null");
+		}
+		if (offset < 0 || length < 0 || offset + length > value.length) {
+			throw new IndexOutOfBoundsException("The given range is out of bounds");
+		}
+		handleUtf8String(value, offset, length);
+	}
+
+	@Override
+	protected void endDocument() throws JsonException {
+		try {
+			getAppendable().finish();
+			getAppendable().flush();
+		} catch (IOException e) {
+			throw new JsonHandlingException(e);
+		}
+	}
+
+	@Override
+	public Void getResult() throws JsonException {
+		return null;
+	}
+
+}
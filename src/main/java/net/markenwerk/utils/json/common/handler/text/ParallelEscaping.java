@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A {@link ParallelEscaping} describes whether and how the JSON text handlers
+ * escape very long names and string values in parallel.
+ * 
+ * <p>
+ * Names and string values, that are at least as long as the configured
+ * threshold, are split into chunks of a fixed size. The chunks are escaped
+ * concurrently by the configured {@link Executor} into separate buffers,
+ * which are then appended in order. At most twice the configured parallelism
+ * of chunks are buffered at any time. A chunk never ends between the high
+ * surrogate and the low surrogate of a surrogate pair. If the {@link Executor}
+ * rejects a chunk, or hasn't started a chunk by the time it is needed, the
+ * chunk is escaped by the calling thread. It is therefore safe to render on a
+ * thread of the same {@link Executor}, even if all of its threads are busy.
+ * 
+ * <p>
+ * The {@link ParallelEscaping#DISABLED default} {@link ParallelEscaping}
+ * escapes all names and string values in the calling thread.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class ParallelEscaping {
+
+	/**
+	 * A {@link ParallelEscaping} that escapes all names and string values in
+	 * the calling thread.
+	 */
+	public static final ParallelEscaping DISABLED = new ParallelEscaping();
+
+	/**
+	 * The default number of characters per chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+	private final Executor executor;
+
+	private final int threshold;
+
+	private final int chunkSize;
+
+	private final int window;
+
+	private ParallelEscaping() {
+		this.executor = null;
+		this.threshold = Integer.MAX_VALUE;
+		this.chunkSize = DEFAULT_CHUNK_SIZE;
+		this.window = 1;
+	}
+
+	/**
+	 * Creates a new {@link ParallelEscaping} that uses the
+	 * {@link ParallelEscaping#DEFAULT_CHUNK_SIZE default chunk size} and the
+	 * number of available processors as the parallelism.
+	 * 
+	 * @param executor
+	 *            The {@link Executor} to escape the chunks with.
+	 * @param threshold
+	 *            The minimal length of names and string values that are
+	 *            escaped in parallel.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Executor} is {@literal null} or if the
+	 *             given threshold is not positive.
+	 */
+	public ParallelEscaping(Executor executor, int threshold) throws IllegalArgumentException {
+		this(executor, threshold, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new {@link ParallelEscaping}.
+	 * 
+	 * @param executor
+	 *            The {@link Executor} to escape the chunks with.
+	 * @param threshold
+	 *            The minimal length of names and string values that are
+	 *            escaped in parallel.
+	 * @param chunkSize
+	 *            The number of characters per chunk.
+	 * @param parallelism
+	 *            The number of chunks that are expected to be escaped
+	 *            concurrently.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Executor} is {@literal null}, if the
+	 *             given threshold or the given parallelism is not positive or
+	 *             if the given chunk size is less than two.
+	 */
+	public ParallelEscaping(Executor executor, int threshold, int chunkSize, int parallelism)
+			throws IllegalArgumentException {
+		if (null == executor) {
+			throw new IllegalArgumentException("The given executor is null");
+		}
+		if (threshold <= 0) {
+			throw new IllegalArgumentException("The given threshold is not positive");
+		}
+		if (chunkSize < 2) {
+			throw new IllegalArgumentException("The given chunk size is less than two");
+		}
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("The given parallelism is not positive");
+		}
+		this.executor = executor;
+		this.threshold = threshold;
+		this.chunkSize = chunkSize;
+		this.window = 2 * parallelism;
+	}
+
+	/**
+	 * Returns whether this {@link ParallelEscaping} escapes names and string
+	 * values with the given length in parallel.
+	 * 
+	 * @param length
+	 *            The length of the name or string value.
+	 * @return Whether names and string values with the given length are
+	 *         escaped in parallel.
+	 */
+	boolean isApplicable(int length) {
+		return null != executor && length >= threshold;
+	}
+
+	/**
+	 * Appends the given range of the given {@link CharSequence} to the given
+	 * {@link Appendable} and escapes all characters as necessary.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param string
+	 *            The {@link CharSequence} to be appended.
+	 * @param from
+	 *            The index of the first character to be appended.
+	 * @param to
+	 *            The index after the last character to be appended.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters need to be escaped.
+	 * @throws IOException
+	 *             If the given {@link Appendable} couldn't be appended to or
+	 *             if the escaping has been interrupted.
+	 */
+	void appendEscaped(Appendable appendable, CharSequence string, int from, int to, boolean asciiSafe)
+			throws IOException {
+		appendEscaped(appendable, string, null, from, to, asciiSafe);
+	}
+
+	/**
+	 * Appends the given range of the given array of characters to the given
+	 * {@link Appendable} and escapes all characters as necessary.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param characters
+	 *            The array of characters to be appended.
+	 * @param from
+	 *            The index of the first character to be appended.
+	 * @param to
+	 *            The index after the last character to be appended.
+	 * @param asciiSafe
+	 *            Whether all non-ASCII characters need to be escaped.
+	 * @throws IOException
+	 *             If the given {@link Appendable} couldn't be appended to or
+	 *             if the escaping has been interrupted.
+	 */
+	void appendEscaped(Appendable appendable, char[] characters, int from, int to, boolean asciiSafe)
+			throws IOException {
+		appendEscaped(appendable, null, characters, from, to, asciiSafe);
+	}
+
+	private void appendEscaped(Appendable appendable, CharSequence string, char[] characters, int from, int to,
+			boolean asciiSafe) throws IOException {
+		LinkedList<FutureTask<StringBuilder>> pending = new LinkedList<FutureTask<StringBuilder>>();
+		try {
+			int start = from;
+			while (start < to || !pending.isEmpty()) {
+				while (start < to && pending.size() < window) {
+					int end = getChunkEnd(string, characters, start, to);
+					pending.add(submit(new Chunk(string, characters, start, end, asciiSafe)));
+					start = end;
+				}
+				appendable.append(await(pending.removeFirst()));
+			}
+		} finally {
+			for (FutureTask<StringBuilder> task : pending) {
+				task.cancel(false);
+			}
+		}
+	}
+
+	private int getChunkEnd(CharSequence string, char[] characters, int start, int to) {
+		if (to - start <= chunkSize) {
+			return to;
+		}
+		int end = start + chunkSize;
+		char last = null == characters ? string.charAt(end - 1) : characters[end - 1];
+		return Character.isHighSurrogate(last) ? end - 1 : end;
+	}
+
+	private FutureTask<StringBuilder> submit(Chunk chunk) {
+		FutureTask<StringBuilder> task = new FutureTask<StringBuilder>(chunk);
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.run();
+		}
+		return task;
+	}
+
+	private static StringBuilder await(FutureTask<StringBuilder> task) throws IOException {
+		// takes over the chunk, if no worker has started it yet
+		task.run();
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while escaping in parallel");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new IOException(cause);
+			}
+		}
+	}
+
+	private static final class Chunk implements Callable<StringBuilder> {
+
+		private final CharSequence string;
+
+		private final char[] characters;
+
+		private final int from;
+
+		private final int to;
+
+		private final boolean asciiSafe;
+
+		private Chunk(CharSequence string, char[] characters, int from, int to, boolean asciiSafe) {
+			this.string = string;
+			this.characters = characters;
+			this.from = from;
+			this.to = to;
+			this.asciiSafe = asciiSafe;
+		}
+
+		@Override
+		public StringBuilder call() throws IOException {
+			StringBuilder builder = new StringBuilder(to - from + ((to - from) >> 3) + 16);
+			if (null == characters) {
+				JsonEscaping.appendEscaped(builder, string, from, to, asciiSafe);
+			} else {
+				JsonEscaping.appendEscaped(builder, characters, from, to, asciiSafe);
+			}
+			return builder;
+		}
+
+	}
+
+	@Override
+	public String toString() {
+		if (null == executor) {
+			return "ParallelEscaping [disabled]";
+		} else {
+			return "ParallelEscaping [threshold=" + threshold + ", chunkSize=" + chunkSize + "]";
+		}
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.common.JsonIndexException;
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.handler.IdleJsonHandler;
+import net.markenwerk.utils.json.handler.JsonHandler;
+
+/**
+ * A {@link RecordingJsonHandler} is a {@link JsonHandler} that records the
+ * handled JSON document and calculates a {@link JsonEventTape}, that can be
+ * replayed into other {@link JsonHandler JsonHandlers} as often as necessary,
+ * as a result.
+ * 
+ * <p>
+ * Equal names and string values are only stored once.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class RecordingJsonHandler extends IdleJsonHandler<JsonEventTape> {
+
+	private final Map<String, Integer> stringIndices = new HashMap<String, Integer>();
+
+	private byte[] opcodes = new byte[64];
+
+	private int opcodeCount;
+
+	private long[] operands = new long[16];
+
+	private int operandCount;
+
+	private String[] strings = new String[16];
+
+	private int stringCount;
+
+	@Override
+	public void onDocumentBegin() {
+		record(JsonEventTape.DOCUMENT_BEGIN);
+	}
+
+	@Override
+	public void onDocumentEnd() {
+		record(JsonEventTape.DOCUMENT_END);
+	}
+
+	@Override
+	public void onArrayBegin() {
+		record(JsonEventTape.ARRAY_BEGIN);
+	}
+
+	@Override
+	public void onArrayEnd() {
+		record(JsonEventTape.ARRAY_END);
+	}
+
+	@Override
+	public void onObjectBegin() {
+		record(JsonEventTape.OBJECT_BEGIN);
+	}
+
+	@Override
+	public void onObjectEnd() {
+		record(JsonEventTape.OBJECT_END);
+	}
+
+	@Override
+	public void onName(String name) throws JsonIndexException {
+		checkName(name);
+		record(JsonEventTape.NAME, indexOf(name));
+	}
+
+	@Override
+	public void onNext() {
+		record(JsonEventTape.NEXT);
+	}
+
+	@Override
+	public void onNull() {
+		record(JsonEventTape.NULL);
+	}
+
+	@Override
+	public void onBoolean(boolean value) {
+		record(value ? JsonEventTape.TRUE : JsonEventTape.FALSE);
+	}
+
+	@Override
+	public void onLong(long value) {
+		record(JsonEventTape.LONG, value);
+	}
+
+	@Override
+	public void onDouble(double value) throws JsonValueException {
+		checkDouble(value);
+		record(JsonEventTape.DOUBLE, Double.doubleToRawLongBits(value));
+	}
+
+	@Override
+	public void onString(String value) throws JsonValueException {
+		checkString(value);
+		record(JsonEventTape.STRING, indexOf(value));
+	}
+
+	@Override
+	public JsonEventTape getResult() throws JsonException {
+		return new JsonEventTape(Arrays.copyOf(opcodes, opcodeCount), Arrays.copyOf(operands, operandCount),
+				Arrays.copyOf(strings, stringCount));
+	}
+
+	private int indexOf(String string) {
+		Integer index = stringIndices.get(string);
+		if (null == index) {
+			if (stringCount == strings.length) {
+				strings = Arrays.copyOf(strings, stringCount * 2);
+			}
+			index = stringCount;
+			strings[stringCount++] = string;
+			stringIndices.put(string, index);
+		}
+		return index;
+	}
+
+	private void record(byte opcode) {
+		if (opcodeCount == opcodes.length) {
+			opcodes = Arrays.copyOf(opcodes, opcodeCount * 2);
+		}
+		opcodes[opcodeCount++] = opcode;
+	}
+
+	private void record(byte opcode, long operand) {
+		record(opcode);
+		if (operandCount == operands.length) {
+			operands = Arrays.copyOf(operands, operandCount * 2);
+		}
+		operands[operandCount++] = operand;
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.json.common.JsonIndexException;
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.handler.IdleJsonHandler;
+import net.markenwerk.utils.json.handler.JsonHandler;
+
+/**
+ * A {@link RedactingJsonHandler} is a {@link JsonHandler} that reports all
+ * events of the handled JSON document to another {@link JsonHandler}, except
+ * that the values of all names that are matched by a {@link JsonNameMatcher}
+ * are replaced with a mask, and calculates the result of that
+ * {@link JsonHandler}.
+ * 
+ * <p>
+ * Redacted arrays and objects are replaced as a whole. Their content is
+ * skipped without any further processing and traced with a single depth
+ * counter.
+ * 
+ * @param <Result>
+ *            The result type.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class RedactingJsonHandler<Result> extends IdleJsonHandler<Result> {
+
+	/**
+	 * The default mask, that is used as a replacement for redacted values.
+	 */
+	public static final String DEFAULT_MASK = "***";
+
+	private final JsonHandler<Result> handler;
+
+	private final JsonNameMatcher matcher;
+
+	private final String mask;
+
+	private boolean redacting;
+
+	private int skippedDepth;
+
+	/**
+	 * Creates a new {@link RedactingJsonHandler} that uses the
+	 * {@link RedactingJsonHandler#DEFAULT_MASK default mask}.
+	 * 
+	 * @param handler
+	 *            The {@link JsonHandler} to report to.
+	 * @param matcher
+	 *            The {@link JsonNameMatcher} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonHandler} or the given
+	 *             {@link JsonNameMatcher} is {@literal null}.
+	 */
+	public RedactingJsonHandler(JsonHandler<Result> handler, JsonNameMatcher matcher) throws IllegalArgumentException {
+		this(handler, matcher, DEFAULT_MASK);
+	}
+
+	/**
+	 * Creates a new {@link RedactingJsonHandler}.
+	 * 
+	 * @param handler
+	 *            The {@link JsonHandler} to report to.
+	 * @param matcher
+	 *            The {@link JsonNameMatcher} to be used.
+	 * @param mask
+	 *            The string value to be reported instead of redacted values.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link JsonHandler}, the given
+	 *             {@link JsonNameMatcher} or the given mask is {@literal null}.
+	 */
+	public RedactingJsonHandler(JsonHandler<Result> handler, JsonNameMatcher matcher, String mask)
+			throws IllegalArgumentException {
+		if (null == handler) {
+			throw new IllegalArgumentException("The given handler is null");
+		}
+		if (null == matcher) {
+			throw new IllegalArgumentException("The given matcher is null");
+		}
+		if (null == mask) {
+			throw new IllegalArgumentException("The given mask is null");
+		}
+		this.handler = handler;
+		this.matcher = matcher;
+		this.mask = mask;
+	}
+
+	@Override
+	public void onDocumentBegin() throws JsonException {
+		redacting = false;
+		skippedDepth = 0;
+		handler.onDocumentBegin();
+	}
+
+	@Override
+	public void onDocumentEnd() throws JsonException {
+		handler.onDocumentEnd();
+	}
+
+	@Override
+	public void onArrayBegin() throws JsonException {
+		if (0 != skippedDepth) {
+			skippedDepth++;
+		} else if (redacting) {
+			redact();
+			skippedDepth = 1;
+		} else {
+			handler.onArrayBegin();
+		}
+	}
+
+	@Override
+	public void onArrayEnd() throws JsonException {
+		if (0 != skippedDepth) {
+			skippedDepth--;
+		} else {
+			handler.onArrayEnd();
+		}
+	}
+
+	@Override
+	public void onObjectBegin() throws JsonException {
+		if (0 != skippedDepth) {
+			skippedDepth++;
+		} else if (redacting) {
+			redact();
+			skippedDepth = 1;
+		} else {
+			handler.onObjectBegin();
+		}
+	}
+
+	@Override
+	public void onObjectEnd() throws JsonException {
+		if (0 != skippedDepth) {
+			skippedDepth--;
+		} else {
+			handler.onObjectEnd();
+		}
+	}
+
+	@Override
+	public void onName(String name) throws JsonIndexException, JsonException {
+		if (0 == skippedDepth) {
+			handler.onName(name);
+			redacting = matcher.matches(name);
+		}
+	}
+
+	@Override
+	public void onNext() throws JsonException {
+		if (0 == skippedDepth) {
+			handler.onNext();
+		}
+	}
+
+	@Override
+	public void onNull() throws JsonException {
+		if (0 == skippedDepth) {
+			if (redacting) {
+				redact();
+			} else {
+				handler.onNull();
+			}
+		}
+	}
+
+	@Override
+	public void onBoolean(boolean value) throws JsonException {
+		if (0 == skippedDepth) {
+			if (redacting) {
+				redact();
+			} else {
+				handler.onBoolean(value);
+			}
+		}
+	}
+
+	@Override
+	public void onLong(long value) throws JsonException {
+		if (0 == skippedDepth) {
+			if (redacting) {
+				redact();
+			} else {
+				handler.onLong(value);
+			}
+		}
+	}
+
+	@Override
+	public void onDouble(double value) throws JsonValueException, JsonException {
+		if (0 == skippedDepth) {
+			if (redacting) {
+				redact();
+			} else {
+				handler.onDouble(value);
+			}
+		}
+	}
+
+	@Override
+	public void onString(String value) throws JsonValueException, JsonException {
+		if (0 == skippedDepth) {
+			if (redacting) {
+				redact();
+			} else {
+				handler.onString(value);
+			}
+		}
+	}
+
+	@Override
+	public Result getResult() throws JsonException {
+		return handler.getResult();
+	}
+
+	private void redact() throws JsonException {
+		redacting = false;
+		handler.onString(mask);
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import net.markenwerk.utils.text.indentation.Indentation;
+
+/**
+ * A {@link RenderedJsonCache} is a cache for rendered JSON values that can be
+ * used with
+ * {@link AbstractAppendingJsonTextJsonHandler#onCachedValue(RenderedJsonCache, Object, long, JsonProducer)}
+ * and
+ * {@link AbstractAppendingJavaTextJsonHandler#onCachedValue(RenderedJsonCache, Object, long, JsonProducer)}
+ * .
+ * 
+ * <p>
+ * Rendered values are identified by a caller supplied identity and version, as
+ * well as the text format, the {@link Indentation}, the {@link DoubleFormat}
+ * and the depth they have been rendered with. Indentations are compared by
+ * the text they produce (their visibility and their lines for the first two
+ * levels), so that equivalent {@link Indentation} instances share cached
+ * values. Least recently used values are evicted, if the
+ * total size of all cached values exceeds the maximum size of a
+ * {@link RenderedJsonCache}.
+ * 
+ * <p>
+ * A {@link RenderedJsonCache} is thread safe and can be shared between multiple
+ * handlers.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class RenderedJsonCache {
+
+	private final LinkedHashMap<Key, String> values = new LinkedHashMap<Key, String>(16, 0.75f, true);
+
+	private final long maximumSize;
+
+	private long size;
+
+	/**
+	 * Creates a new {@link RenderedJsonCache}.
+	 * 
+	 * @param maximumSize
+	 *            The maximum size in bytes of all cached values, where every
+	 *            rendered character is accounted with two bytes.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given maximum size is negative.
+	 */
+	public RenderedJsonCache(long maximumSize) throws IllegalArgumentException {
+		if (maximumSize < 0) {
+			throw new IllegalArgumentException("The given maximum size is negative");
+		}
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Returns the maximum size in bytes of all cached values.
+	 * 
+	 * @return The maximum size in bytes of all cached values.
+	 */
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns the current size in bytes of all cached values.
+	 * 
+	 * @return The current size in bytes of all cached values.
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Removes all cached values.
+	 */
+	public synchronized void clear() {
+		values.clear();
+		size = 0;
+	}
+
+	synchronized String get(Key key) {
+		return values.get(key);
+	}
+
+	synchronized void put(Key key, String value) {
+		long valueSize = sizeOf(value);
+		if (valueSize <= maximumSize) {
+			String previousValue = values.put(key, value);
+			if (null != previousValue) {
+				size -= sizeOf(previousValue);
+			}
+			size += valueSize;
+			Iterator<Entry<Key, String>> iterator = values.entrySet().iterator();
+			while (size > maximumSize) {
+				size -= sizeOf(iterator.next().getValue());
+				iterator.remove();
+			}
+		}
+	}
+
+	private static long sizeOf(String value) {
+		return 2L * value.length();
+	}
+
+	static final class Key {
+
+		private final Object identity;
+
+		private final long version;
+
+		private final Class<?> format;
+
+		private final boolean visible;
+
+		private final String firstLine;
+
+		private final String secondLine;
+
+		private final boolean asciiSafe;
+
+		private final DoubleFormat doubleFormat;
+
+		private final int depth;
+
+		Key(Object identity, long version, Class<?> format, Indentation indentation, boolean asciiSafe,
+				DoubleFormat doubleFormat, int depth) {
+			this.identity = identity;
+			this.version = version;
+			this.format = format;
+			this.visible = indentation.isVisible();
+			this.firstLine = indentation.get(0, true);
+			this.secondLine = indentation.get(1, true);
+			this.asciiSafe = asciiSafe;
+			this.doubleFormat = doubleFormat;
+			this.depth = depth;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = identity.hashCode();
+			hash = 31 * hash + (int) (version ^ (version >>> 32));
+			hash = 31 * hash + format.hashCode();
+			hash = 31 * hash + (visible ? 1 : 0);
+			hash = 31 * hash + firstLine.hashCode();
+			hash = 31 * hash + secondLine.hashCode();
+			hash = 31 * hash + (asciiSafe ? 1 : 0);
+			hash = 31 * hash + doubleFormat.hashCode();
+			hash = 31 * hash + depth;
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			} else if (!(object instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) object;
+			return version == other.version && depth == other.depth && asciiSafe == other.asciiSafe
+					&& format == other.format && visible == other.visible && firstLine.equals(other.firstLine)
+					&& secondLine.equals(other.secondLine)
+					&& doubleFormat.equals(other.doubleFormat) && identity.equals(other.identity);
+		}
+
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+import net.markenwerk.utils.json.common.JsonException;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+/**
+ * A {@link RopeJsonTextJsonHandler} is a
+ * {@link AbstractAppendingJsonTextJsonHandler} that calculates a pretty JSON
+ * text for the handled JSON document as a {@link CharacterRope}.
+ * 
+ * <p>
+ * Unlike a {@link JsonTextJsonHandler}, a {@link RopeJsonTextJsonHandler}
+ * never copies characters that have already been appended and can calculate
+ * JSON texts that contain more than {@link Integer#MAX_VALUE} characters. The
+ * result can be written to a {@link java.io.Writer} or an
+ * {@link java.io.OutputStream} without creating a single string.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class RopeJsonTextJsonHandler extends AbstractAppendingJsonTextJsonHandler<CharacterRope, CharacterRope> {
+
+	/**
+	 * Creates a new {@link RopeJsonTextJsonHandler} using the
+	 * {@link Indentation#DEFAULT default} Indentation.
+	 */
+	public RopeJsonTextJsonHandler() {
+		this(Indentation.DEFAULT);
+	}
+
+	/**
+	 * Creates a new {@link RopeJsonTextJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public RopeJsonTextJsonHandler(Indentation indentation) throws IllegalArgumentException {
+		this(indentation, new CharacterRope());
+	}
+
+	/**
+	 * Creates a new {@link RopeJsonTextJsonHandler}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param chunkSize
+	 *            The number of characters per chunk.
+	 * @param direct
+	 *            Whether to allocate the chunks outside of the Java heap.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if the
+	 *             given chunk size is not positive or larger than
+	 *             {@link CharacterRope#MAXIMUM_CHUNK_SIZE}.
+	 */
+	public RopeJsonTextJsonHandler(Indentation indentation, int chunkSize, boolean direct)
+			throws IllegalArgumentException {
+		this(indentation, new CharacterRope(chunkSize, direct));
+	}
+
+	private RopeJsonTextJsonHandler(Indentation indentation, CharacterRope rope) throws IllegalArgumentException {
+		super(rope, indentation);
+	}
+
+	@Override
+	public CharacterRope getResult() throws JsonException {
+		return getAppendable();
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.json.common.handler.text;
+
+/**
+ * A {@link TextSize} is the size of a text, measured in characters and in
+ * bytes of its UTF-8 encoding.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.1.0
+ */
+public final class TextSize {
+
+	private final long characterCount;
+
+	private final long byteCount;
+
+	/**
+	 * Creates a new {@link TextSize}.
+	 * 
+	 * @param characterCount
+	 *            The number of characters.
+	 * @param byteCount
+	 *            The number of bytes.
+	 */
+	public TextSize(long characterCount, long byteCount) {
+		this.characterCount = characterCount;
+		this.byteCount = byteCount;
+	}
+
+	/**
+	 * Returns the number of characters.
+	 * 
+	 * @return The number of characters.
+	 */
+	public long getCharacterCount() {
+		return characterCount;
+	}
+
+	/**
+	 * Returns the number of bytes of the UTF-8 encoding.
+	 * 
+	 * @return The number of bytes.
+	 */
+	public long getByteCount() {
+		return byteCount;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (int) (characterCount ^ (characterCount >>> 32)) + (int) (byteCount ^ (byteCount >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		} else if (!(object instanceof TextSize)) {
+			return false;
+		}
+		TextSize other = (TextSize) object;
+		return characterCount == other.characterCount && byteCount == other.byteCount;
+	}
+
+	@Override
+	public String toString() {
+		return "TextSize [characterCount=" + characterCount + ", byteCount=" + byteCount + "]";
+	}
+
+}
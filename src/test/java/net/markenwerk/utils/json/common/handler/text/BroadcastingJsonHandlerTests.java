@@ -0,0 +1,99 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.common.JsonIndexException;
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class BroadcastingJsonHandlerTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullHandlers() {
+
+		new BroadcastingJsonHandler((JsonHandler<?>[]) null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullHandler() {
+
+		new BroadcastingJsonHandler(new JsonTextJsonHandler(), null);
+
+	}
+
+	@Test(expected = JsonIndexException.class)
+	public void onName_null() {
+
+		JsonHandler<Void> handler = new BroadcastingJsonHandler(new JsonTextJsonHandler());
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName(null);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onDouble_notANumber() {
+
+		JsonHandler<Void> handler = new BroadcastingJsonHandler(new JsonTextJsonHandler());
+
+		handler.onDocumentBegin();
+		handler.onDouble(Double.NaN);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onString_null() {
+
+		JsonHandler<Void> handler = new BroadcastingJsonHandler(new JsonTextJsonHandler());
+
+		handler.onDocumentBegin();
+		handler.onString(null);
+
+	}
+
+	@Test
+	public void onDocument_complex() {
+
+		JsonTextJsonHandler jsonHandler = new JsonTextJsonHandler(Indentation.INVISIBLE);
+		JavaTextJsonHandler javaHandler = new JavaTextJsonHandler();
+		RecordingJsonHandler recordingHandler = new RecordingJsonHandler();
+		JsonHandler<Void> handler = new BroadcastingJsonHandler(jsonHandler, javaHandler, recordingHandler);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("n");
+		handler.onNull();
+		handler.onNext();
+		handler.onName("b");
+		handler.onBoolean(true);
+		handler.onNext();
+		handler.onName("l");
+		handler.onLong(-42);
+		handler.onNext();
+		handler.onName("d");
+		handler.onDouble(-23.42);
+		handler.onNext();
+		handler.onName("a");
+		handler.onArrayBegin();
+		handler.onString("foo");
+		handler.onNext();
+		handler.onString("bar");
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		String json = "{\"n\":null,\"b\":true,\"l\":-42,\"d\":-23.42,\"a\":[\"foo\",\"bar\"]}";
+
+		Assert.assertNull(handler.getResult());
+		Assert.assertEquals(json, jsonHandler.getResult());
+		Assert.assertEquals("{n=null, b=true, l=-42, d=-23.42, a=[foo, bar]}", javaHandler.getResult());
+		Assert.assertEquals(json, recordingHandler.getResult().replay(new JsonTextJsonHandler(Indentation.INVISIBLE)));
+
+	}
+
+}
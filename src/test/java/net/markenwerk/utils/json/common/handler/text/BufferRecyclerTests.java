@@ -0,0 +1,87 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class BufferRecyclerTests {
+
+	@Test
+	public void charBuffer_recycled() {
+
+		char[] buffer = BufferRecycler.acquireCharBuffer();
+		BufferRecycler.releaseCharBuffer(buffer);
+
+		Assert.assertEquals(BufferRecycler.CHAR_BUFFER_SIZE, buffer.length);
+		Assert.assertSame(buffer, BufferRecycler.acquireCharBuffer());
+
+	}
+
+	@Test
+	public void byteBuffer_recycled() {
+
+		byte[] buffer = BufferRecycler.acquireByteBuffer();
+		BufferRecycler.releaseByteBuffer(buffer);
+
+		Assert.assertEquals(BufferRecycler.BYTE_BUFFER_SIZE, buffer.length);
+		Assert.assertSame(buffer, BufferRecycler.acquireByteBuffer());
+
+	}
+
+	@Test
+	public void foreignBuffer_ignored() {
+
+		BufferRecycler.releaseCharBuffer(new char[42]);
+
+		Assert.assertEquals(BufferRecycler.CHAR_BUFFER_SIZE, BufferRecycler.acquireCharBuffer().length);
+
+	}
+
+	@Test
+	public void sharedPool_bounded() {
+
+		byte[][] buffers = new byte[1000][];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = BufferRecycler.acquireByteBuffer();
+		}
+		for (int i = 0; i < buffers.length; i++) {
+			BufferRecycler.releaseByteBuffer(buffers[i]);
+		}
+
+		Assert.assertTrue(BufferRecycler.getSharedSize() <= 1 << 20);
+
+	}
+
+	@Test
+	public void outputStreamHandler_reused() throws IOException {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		OutputStreamJsonTextJsonHandler handler = new OutputStreamJsonTextJsonHandler(outputStream,
+				Charset.forName("UTF-16BE"), Indentation.INVISIBLE);
+
+		render(handler);
+		render(handler);
+		handler.getAppendable().close();
+
+		Assert.assertEquals("[\"ä\",\"AQI=\"][\"ä\",\"AQI=\"]", outputStream.toString("UTF-16BE"));
+
+	}
+
+	private static void render(JsonHandler<?> handler) {
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onString("ä");
+		handler.onNext();
+		((AbstractAppendingJsonTextJsonHandler<?, ?>) handler).onBinary(new byte[] { 1, 2 });
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+	}
+
+}
@@ -0,0 +1,135 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.security.MessageDigest;
+import java.util.zip.CRC32;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DigestingAppendableTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullAppendable() {
+
+		new DigestingAppendable(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullChecksum() {
+
+		new DigestingAppendable(new StringBuilder(), (CRC32) null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullDigest() {
+
+		new DigestingAppendable(new StringBuilder(), (MessageDigest) null);
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void getChecksum_digest() throws Exception {
+
+		new DigestingAppendable(new StringBuilder(), MessageDigest.getInstance("SHA-256")).getChecksum();
+
+	}
+
+	@Test
+	public void fnv1a64_knownValues() throws Exception {
+
+		Fnv1a64Checksum checksum = new Fnv1a64Checksum();
+		Assert.assertEquals(0xCBF29CE484222325L, checksum.getValue());
+
+		checksum.update('a');
+		Assert.assertEquals(0xAF63DC4C8601EC8CL, checksum.getValue());
+
+		checksum.reset();
+		byte[] bytes = "foobar".getBytes("UTF-8");
+		checksum.update(bytes, 0, bytes.length);
+		Assert.assertEquals(0x85944171F73967E8L, checksum.getValue());
+
+	}
+
+	@Test
+	public void onDocument_crc32() throws Exception {
+
+		StringBuilder builder = new StringBuilder();
+		DigestingAppendable appendable = new DigestingAppendable(builder);
+		render(new AppendingJsonTextJsonHandler(appendable));
+
+		CRC32 checksum = new CRC32();
+		byte[] bytes = builder.toString().getBytes("UTF-8");
+		checksum.update(bytes, 0, bytes.length);
+
+		Assert.assertEquals(checksum.getValue(), appendable.getChecksum());
+
+	}
+
+	@Test
+	public void onDocument_fnv1a64() throws Exception {
+
+		StringBuilder builder = new StringBuilder();
+		DigestingAppendable appendable = new DigestingAppendable(builder, new Fnv1a64Checksum());
+		render(new AppendingJavaTextJsonHandler(appendable));
+
+		Fnv1a64Checksum checksum = new Fnv1a64Checksum();
+		byte[] bytes = builder.toString().getBytes("UTF-8");
+		checksum.update(bytes, 0, bytes.length);
+
+		Assert.assertEquals(checksum.getValue(), appendable.getChecksum());
+		Assert.assertEquals(String.format("%016x", checksum.getValue()), appendable.getHexDigest());
+
+	}
+
+	@Test
+	public void onDocument_messageDigest() throws Exception {
+
+		StringBuilder builder = new StringBuilder();
+		DigestingAppendable appendable = new DigestingAppendable(builder, MessageDigest.getInstance("SHA-256"));
+		render(new AppendingJsonTextJsonHandler(appendable));
+
+		byte[] digest = MessageDigest.getInstance("SHA-256").digest(builder.toString().getBytes("UTF-8"));
+
+		Assert.assertArrayEquals(digest, appendable.getDigest());
+
+	}
+
+	@Test
+	public void reset() throws Exception {
+
+		DigestingAppendable appendable = new DigestingAppendable(new StringBuilder(), new Fnv1a64Checksum());
+		appendable.append("foo");
+		appendable.reset();
+
+		Assert.assertEquals(0xCBF29CE484222325L, appendable.getChecksum());
+
+	}
+
+	private static void render(AbstractAppendingJsonTextJsonHandler<?, ?> handler) {
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("foo");
+		handler.onString("bär € 😀");
+		handler.onNext();
+		handler.onName("baz");
+		handler.onLong(42);
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+	}
+
+	private static void render(AbstractAppendingJavaTextJsonHandler<?, ?> handler) {
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("foo");
+		handler.onString("bär € 😀");
+		handler.onNext();
+		handler.onName("baz");
+		handler.onLong(42);
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+	}
+
+}
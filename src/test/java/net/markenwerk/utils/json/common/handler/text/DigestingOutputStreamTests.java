@@ -0,0 +1,93 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.zip.CRC32;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class DigestingOutputStreamTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullOutputStream() {
+
+		new DigestingOutputStream(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullChecksum() {
+
+		new DigestingOutputStream(new ByteArrayOutputStream(), (CRC32) null);
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void getChecksum_digest() throws Exception {
+
+		new DigestingOutputStream(new ByteArrayOutputStream(), MessageDigest.getInstance("SHA-256")).getChecksum();
+
+	}
+
+	@Test
+	public void onDocument_otherCharset() throws IOException {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DigestingOutputStream digestingOutputStream = new DigestingOutputStream(outputStream);
+		render(new OutputStreamJsonTextJsonHandler(digestingOutputStream, Charset.forName("windows-1252"),
+				Indentation.INVISIBLE));
+
+		CRC32 checksum = new CRC32();
+		byte[] bytes = outputStream.toByteArray();
+		checksum.update(bytes, 0, bytes.length);
+
+		Assert.assertEquals("[\"ä€\\u0142\"]", outputStream.toString("windows-1252"));
+		Assert.assertEquals(checksum.getValue(), digestingOutputStream.getChecksum());
+
+	}
+
+	@Test
+	public void onDocument_statefulCharset() throws Exception {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DigestingOutputStream digestingOutputStream = new DigestingOutputStream(outputStream,
+				MessageDigest.getInstance("SHA-256"));
+		render(new OutputStreamJavaTextJsonHandler(digestingOutputStream, Charset.forName("ISO-2022-JP"),
+				Indentation.INVISIBLE));
+
+		byte[] digest = MessageDigest.getInstance("SHA-256").digest(outputStream.toByteArray());
+
+		Assert.assertArrayEquals(digest, digestingOutputStream.getDigest());
+
+	}
+
+	@Test
+	public void reset() throws IOException {
+
+		DigestingOutputStream digestingOutputStream = new DigestingOutputStream(new ByteArrayOutputStream());
+
+		digestingOutputStream.write(new byte[] { 1, 2, 3 }, 0, 3);
+		digestingOutputStream.reset();
+
+		Assert.assertEquals(new CRC32().getValue(), digestingOutputStream.getChecksum());
+
+	}
+
+	private static void render(JsonHandler<Void> handler) {
+
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onString("ä€ł");
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+
+	}
+
+}
@@ -0,0 +1,186 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class DoubleFormatTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void significantDigits_zero() {
+
+		DoubleFormat.significantDigits(0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void fixedDecimals_tooMany() {
+
+		DoubleFormat.fixedDecimals(DoubleFormat.MAXIMUM_PRECISION + 1);
+
+	}
+
+	@Test
+	public void shortest() {
+
+		Assert.assertEquals(Double.toString(-23.42), DoubleFormat.SHORTEST.format(-23.42));
+
+	}
+
+	@Test
+	public void significantDigits_plain() {
+
+		DoubleFormat format = DoubleFormat.significantDigits(6);
+
+		Assert.assertEquals("3.14159", format.format(Math.PI));
+		Assert.assertEquals("-3.14159", format.format(-Math.PI));
+		Assert.assertEquals("1.0", format.format(1));
+		Assert.assertEquals("100.0", format.format(100));
+		Assert.assertEquals("123457.0", format.format(123456.7));
+		Assert.assertEquals("1234570.0", format.format(1234567.4));
+		Assert.assertEquals("0.5", format.format(0.5));
+		Assert.assertEquals("0.00123457", format.format(0.001234567));
+
+	}
+
+	@Test
+	public void significantDigits_rounding() {
+
+		DoubleFormat format = DoubleFormat.significantDigits(6);
+
+		Assert.assertEquals("1.0", format.format(0.99999996));
+		Assert.assertEquals("10.0", format.format(9.9999996));
+		Assert.assertEquals("1.0E7", format.format(9999999.6));
+		Assert.assertEquals("2.5", format.format(2.4999996));
+		Assert.assertEquals("0.001", format.format(0.00099999996));
+
+	}
+
+	@Test
+	public void significantDigits_exponent() {
+
+		DoubleFormat format = DoubleFormat.significantDigits(6);
+
+		Assert.assertEquals("1.23457E7", format.format(12345678));
+		Assert.assertEquals("1.0E-4", format.format(0.0001));
+		Assert.assertEquals("-2.5E-10", format.format(-2.5e-10));
+		Assert.assertEquals("1.79769E308", format.format(Double.MAX_VALUE));
+		Assert.assertEquals("4.94066E-324", format.format(Double.MIN_VALUE));
+		Assert.assertEquals("2.22507E-308", format.format(Double.MIN_NORMAL));
+
+	}
+
+	@Test
+	public void significantDigits_zero_values() {
+
+		DoubleFormat format = DoubleFormat.significantDigits(6);
+
+		Assert.assertEquals("0.0", format.format(0.0));
+		Assert.assertEquals("0.0", format.format(-0.0));
+
+	}
+
+	@Test
+	public void significantDigits_maximum() {
+
+		DoubleFormat format = DoubleFormat.significantDigits(DoubleFormat.MAXIMUM_PRECISION);
+
+		Assert.assertEquals("0.10000000000000001", format.format(0.1));
+		Assert.assertEquals("2.7182818284590451", format.format(Math.E));
+		Assert.assertEquals("1.0000000000000001E300", format.format(1e300));
+		Assert.assertEquals("1.0E-300", format.format(1e-300));
+		Assert.assertEquals("1.7976931348623157E308", format.format(Double.MAX_VALUE));
+		Assert.assertEquals("4.9406564584124654E-324", format.format(Double.MIN_VALUE));
+
+	}
+
+	@Test
+	public void significantDigits_beyondMaximumValue() {
+
+		DoubleFormat format = DoubleFormat.significantDigits(16);
+
+		Assert.assertEquals("1.797693134862315E308", format.format(Double.MAX_VALUE));
+		Assert.assertEquals("-1.797693134862315E308", format.format(-Double.MAX_VALUE));
+		for (int i = 1; i <= DoubleFormat.MAXIMUM_PRECISION; i++) {
+			String formatted = DoubleFormat.significantDigits(i).format(Double.MAX_VALUE);
+			Assert.assertFalse(Double.isInfinite(Double.parseDouble(formatted)));
+		}
+
+	}
+
+	@Test
+	public void significantDigits_roundTrip() {
+
+		DoubleFormat format = DoubleFormat.significantDigits(DoubleFormat.MAXIMUM_PRECISION);
+		Random random = new Random(42);
+
+		for (int i = 0; i < 10000; i++) {
+			double value = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+			Assert.assertEquals(value, Double.parseDouble(format.format(value)), 0);
+		}
+
+	}
+
+	@Test
+	public void fixedDecimals() {
+
+		DoubleFormat format = DoubleFormat.fixedDecimals(3);
+
+		Assert.assertEquals("3.142", format.format(Math.PI));
+		Assert.assertEquals("-3.142", format.format(-Math.PI));
+		Assert.assertEquals("1.000", format.format(1));
+		Assert.assertEquals("0.001", format.format(0.0005));
+		Assert.assertEquals("0.000", format.format(-0.0004));
+		Assert.assertEquals("0.000", format.format(-0.0));
+		Assert.assertEquals("10.000", format.format(9.9996));
+
+	}
+
+	@Test
+	public void fixedDecimals_none() {
+
+		DoubleFormat format = DoubleFormat.fixedDecimals(0);
+
+		Assert.assertEquals("3", format.format(Math.PI));
+		Assert.assertEquals("-42", format.format(-41.5));
+		Assert.assertEquals("0", format.format(0.49999999999999994));
+		Assert.assertEquals("1", format.format(0.5));
+
+	}
+
+	@Test
+	public void fixedDecimals_large() {
+
+		DoubleFormat format = DoubleFormat.fixedDecimals(2);
+
+		Assert.assertEquals("1.0E20", format.format(1e20));
+		Assert.assertEquals("1.7976931348623157E308", format.format(Double.MAX_VALUE));
+		Assert.assertEquals("0.00", format.format(Double.MIN_VALUE));
+
+	}
+
+	@Test
+	public void handlers() {
+
+		DoubleFormat format = DoubleFormat.significantDigits(3);
+		JsonTextJsonHandler jsonHandler = new JsonTextJsonHandler(Indentation.INVISIBLE, false, format);
+		JavaTextJsonHandler javaHandler = new JavaTextJsonHandler(Indentation.INVISIBLE, format);
+
+		jsonHandler.onDocumentBegin();
+		jsonHandler.onDoubleArray(new double[] { Math.PI, -1e-9 }, 0, 2);
+		jsonHandler.onDocumentEnd();
+
+		javaHandler.onDocumentBegin();
+		javaHandler.onDouble(Math.PI);
+		javaHandler.onDocumentEnd();
+
+		Assert.assertEquals("[3.14,-1.0E-9]", jsonHandler.getResult());
+		Assert.assertEquals("3.14", javaHandler.getResult());
+
+	}
+
+}
@@ -0,0 +1,202 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class FilteringJsonHandlerTests {
+
+	private JsonEventTape tape;
+
+	@Before
+	public void prepareTape() {
+
+		RecordingJsonHandler handler = new RecordingJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("a");
+		handler.onObjectBegin();
+		handler.onName("x");
+		handler.onLong(1);
+		handler.onNext();
+		handler.onName("y");
+		handler.onArrayBegin();
+		handler.onLong(2);
+		handler.onNext();
+		handler.onObjectBegin();
+		handler.onName("z");
+		handler.onLong(3);
+		handler.onObjectEnd();
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onNext();
+		handler.onName("b");
+		handler.onString("foo");
+		handler.onNext();
+		handler.onName("c");
+		handler.onArrayBegin();
+		handler.onObjectBegin();
+		handler.onName("id");
+		handler.onLong(4);
+		handler.onNext();
+		handler.onName("p");
+		handler.onString("bar");
+		handler.onObjectEnd();
+		handler.onNext();
+		handler.onObjectBegin();
+		handler.onName("id");
+		handler.onLong(5);
+		handler.onNext();
+		handler.onName("p");
+		handler.onString("baz");
+		handler.onObjectEnd();
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		tape = handler.getResult();
+
+	}
+
+	private String filter(String[] includes, String[] excludes) {
+
+		JsonPathFilter filter = new JsonPathFilter(Arrays.asList(includes), Arrays.asList(excludes));
+		return tape.replay(new FilteringJsonHandler<String>(new JsonTextJsonHandler(Indentation.INVISIBLE), filter));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullHandler() {
+
+		new FilteringJsonHandler<String>(null, new JsonPathFilter(Collections.<String> emptyList(),
+				Collections.<String> emptyList()));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullFilter() {
+
+		new FilteringJsonHandler<String>(new JsonTextJsonHandler(), null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void createFilter_noLeadingSlash() {
+
+		new JsonPathFilter(Arrays.asList("a/b"), Collections.<String> emptyList());
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void createFilter_invalidEscape() {
+
+		new JsonPathFilter(Collections.<String> emptyList(), Arrays.asList("/a~2"));
+
+	}
+
+	@Test
+	public void filter_nothing() {
+
+		String json = filter(new String[0], new String[0]);
+
+		Assert.assertEquals("{\"a\":{\"x\":1,\"y\":[2,{\"z\":3}]},\"b\":\"foo\",\"c\":[{\"id\":4,\"p\":\"bar\"},"
+				+ "{\"id\":5,\"p\":\"baz\"}]}", json);
+
+	}
+
+	@Test
+	public void filter_include() {
+
+		String json = filter(new String[] { "/a/y/1", "/b" }, new String[0]);
+
+		Assert.assertEquals("{\"a\":{\"y\":[{\"z\":3}]},\"b\":\"foo\"}", json);
+
+	}
+
+	@Test
+	public void filter_includeWildcard() {
+
+		String json = filter(new String[] { "/c/*/p" }, new String[0]);
+
+		Assert.assertEquals("{\"c\":[{\"p\":\"bar\"},{\"p\":\"baz\"}]}", json);
+
+	}
+
+	@Test
+	public void filter_exclude() {
+
+		String json = filter(new String[0], new String[] { "/a", "/c/*/id" });
+
+		Assert.assertEquals("{\"b\":\"foo\",\"c\":[{\"p\":\"bar\"},{\"p\":\"baz\"}]}", json);
+
+	}
+
+	@Test
+	public void filter_excludeFirstEntry() {
+
+		String json = filter(new String[0], new String[] { "/a/x", "/a/y/0" });
+
+		Assert.assertEquals("{\"a\":{\"y\":[{\"z\":3}]},\"b\":\"foo\",\"c\":[{\"id\":4,\"p\":\"bar\"},"
+				+ "{\"id\":5,\"p\":\"baz\"}]}", json);
+
+	}
+
+	@Test
+	public void filter_includeAndExclude() {
+
+		String json = filter(new String[] { "/a", "/c/1" }, new String[] { "/a/y", "/*/*/p" });
+
+		Assert.assertEquals("{\"a\":{\"x\":1},\"c\":[{\"id\":5}]}", json);
+
+	}
+
+	@Test
+	public void filter_includeNonExisting() {
+
+		String json = filter(new String[] { "/a/q", "/d" }, new String[0]);
+
+		Assert.assertEquals("", json);
+
+	}
+
+	@Test
+	public void filter_excludeDocument() {
+
+		String json = filter(new String[0], new String[] { "" });
+
+		Assert.assertEquals("", json);
+
+	}
+
+	@Test
+	public void filter_escapedNames() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(Indentation.INVISIBLE);
+		JsonPathFilter filter = new JsonPathFilter(Arrays.asList("/a~1b", "/c~0d"), Collections.<String> emptyList());
+		FilteringJsonHandler<String> filteringHandler = new FilteringJsonHandler<String>(handler, filter);
+
+		filteringHandler.onDocumentBegin();
+		filteringHandler.onObjectBegin();
+		filteringHandler.onName("a/b");
+		filteringHandler.onLong(1);
+		filteringHandler.onNext();
+		filteringHandler.onName("c~d");
+		filteringHandler.onLong(2);
+		filteringHandler.onNext();
+		filteringHandler.onName("e");
+		filteringHandler.onLong(3);
+		filteringHandler.onObjectEnd();
+		filteringHandler.onDocumentEnd();
+
+		Assert.assertEquals("{\"a\\/b\":1,\"c~d\":2}", filteringHandler.getResult());
+
+	}
+
+}
@@ -0,0 +1,61 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.text.indentation.Indentation;
+import net.markenwerk.utils.text.indentation.InvisibleIndentation;
+import net.markenwerk.utils.text.indentation.LineBreak;
+import net.markenwerk.utils.text.indentation.Whitespace;
+import net.markenwerk.utils.text.indentation.WhitespaceIndentation;
+
+@SuppressWarnings("javadoc")
+public class IndentationBufferTests {
+
+	@Test
+	public void whitespaceIndentation() throws Exception {
+
+		assertSameAsIndentation(new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.WINDOWS));
+
+	}
+
+	@Test
+	public void invisibleIndentation() throws Exception {
+
+		assertSameAsIndentation(new InvisibleIndentation(LineBreak.UNIX));
+
+	}
+
+	@Test
+	public void deeplyNested() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX);
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(indentation);
+		StringBuilder expected = new StringBuilder();
+
+		handler.onDocumentBegin();
+		for (int i = 0; i < 500; i++) {
+			handler.onArrayBegin();
+			expected.append(0 == i ? "" : indentation.get(i, true)).append('[');
+		}
+		for (int i = 500; i > 0; i--) {
+			handler.onArrayEnd();
+			expected.append(500 == i ? "" : indentation.get(i - 1, true)).append(']');
+		}
+		handler.onDocumentEnd();
+
+		Assert.assertEquals(expected.toString(), handler.getResult());
+
+	}
+
+	private static void assertSameAsIndentation(Indentation indentation) throws Exception {
+		IndentationBuffer buffer = new IndentationBuffer(indentation);
+		for (int depth : new int[] { 0, 3, 1, 40, 7, 41, 100 }) {
+			StringBuilder builder = new StringBuilder();
+			buffer.append(builder, depth);
+			Assert.assertEquals(indentation.get(depth, true), builder.toString());
+			Assert.assertEquals(indentation.get(depth, true), buffer.get(depth));
+		}
+	}
+
+}
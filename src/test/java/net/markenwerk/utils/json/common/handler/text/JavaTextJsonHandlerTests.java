@@ -1,10 +1,14 @@
 package net.markenwerk.utils.json.common.handler.text;
 
+import java.math.BigDecimal;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import net.markenwerk.utils.json.common.JsonIndexException;
 import net.markenwerk.utils.json.common.JsonValueException;
 import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
 import net.markenwerk.utils.text.indentation.LineBreak;
 import net.markenwerk.utils.text.indentation.Whitespace;
 import net.markenwerk.utils.text.indentation.WhitespaceIndentation;
@@ -217,6 +221,162 @@ public class JavaTextJsonHandlerTests {
 
 	}
 
+	@Test(expected = JsonValueException.class)
+	public void onNumber_null() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onNumber(null);
+		handler.onDocumentEnd();
+
+	}
+
+	@Test
+	public void onNumber_invalid() {
+
+		String[] literals = new String[] { "", "-", "01", "1.", ".1", "1e", "1e+", "+1", "1 ", "NaN", "0x1" };
+		for (String literal : literals) {
+			JavaTextJsonHandler handler = new JavaTextJsonHandler();
+			try {
+				handler.onDocumentBegin();
+				handler.onNumber(literal);
+				Assert.fail(literal);
+			} catch (JsonValueException e) {
+			}
+		}
+
+	}
+
+	@Test
+	public void onNumber_valid() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onNumber("0");
+		handler.onNext();
+		handler.onNumber("-1.50");
+		handler.onNext();
+		handler.onNumber(new BigDecimal("12345678901234567890.123456789").toString());
+		handler.onNext();
+		handler.onNumber(new BigDecimal("1E+3").toString());
+		handler.onNext();
+		handler.onNumber(new StringBuilder("-0.5e-7"));
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("[0, -1.50, 12345678901234567890.123456789, 1E+3, -0.5e-7]", result);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onLongArray_null() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onLongArray(null, 0, 0);
+
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void onLongArray_outOfBounds() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onLongArray(new long[2], 1, 2);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onDoubleArray_notANumber() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onDoubleArray(new double[] { 1, Double.NaN }, 0, 2);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onStringArray_nullValue() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onStringArray(new String[] { "foo", null }, 0, 2);
+
+	}
+
+	@Test
+	public void onArrays_sameAsEvents() {
+
+		WhitespaceIndentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+		JavaTextJsonHandler bulkHandler = new JavaTextJsonHandler(indentation);
+		JavaTextJsonHandler handler = new JavaTextJsonHandler(indentation);
+
+		bulkHandler.onDocumentBegin();
+		bulkHandler.onObjectBegin();
+		bulkHandler.onName("l");
+		bulkHandler.onLongArray(new long[] { 0, 1, -2, 3 }, 1, 2);
+		bulkHandler.onNext();
+		bulkHandler.onName("d");
+		bulkHandler.onDoubleArray(new double[] { -23.42 }, 0, 1);
+		bulkHandler.onNext();
+		bulkHandler.onName("b");
+		bulkHandler.onBooleanArray(new boolean[] { true, false }, 0, 2);
+		bulkHandler.onNext();
+		bulkHandler.onName("s");
+		bulkHandler.onStringArray(new String[] { "foo", "\"bar\"" }, 0, 2);
+		bulkHandler.onNext();
+		bulkHandler.onName("e");
+		bulkHandler.onLongArray(new long[0], 0, 0);
+		bulkHandler.onObjectEnd();
+		bulkHandler.onDocumentEnd();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("l");
+		handler.onArrayBegin();
+		handler.onLong(1);
+		handler.onNext();
+		handler.onLong(-2);
+		handler.onArrayEnd();
+		handler.onNext();
+		handler.onName("d");
+		handler.onArrayBegin();
+		handler.onDouble(-23.42);
+		handler.onArrayEnd();
+		handler.onNext();
+		handler.onName("b");
+		handler.onArrayBegin();
+		handler.onBoolean(true);
+		handler.onNext();
+		handler.onBoolean(false);
+		handler.onArrayEnd();
+		handler.onNext();
+		handler.onName("s");
+		handler.onArrayBegin();
+		handler.onString("foo");
+		handler.onNext();
+		handler.onString("\"bar\"");
+		handler.onArrayEnd();
+		handler.onNext();
+		handler.onName("e");
+		handler.onArrayBegin();
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		Assert.assertEquals(handler.getResult(), bulkHandler.getResult());
+
+	}
+
 	@Test
 	public void onArray_empty() {
 
@@ -284,6 +444,144 @@ public class JavaTextJsonHandlerTests {
 
 	}
 
+	@Test(expected = JsonValueException.class)
+	public void onString_nullCharSequence() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onString((CharSequence) null);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onString_charactersOutOfBounds() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onString(new char[2], 1, 2);
+
+	}
+
+	@Test(expected = JsonIndexException.class)
+	public void onName_charactersOutOfBounds() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName(new char[2], 0, 3);
+
+	}
+
+	@Test
+	public void onName_nullOverloads() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+
+		String message = null;
+		try {
+			handler.onName((String) null);
+		} catch (JsonIndexException e) {
+			message = e.getMessage();
+		}
+		try {
+			handler.onName((CharSequence) null);
+			Assert.fail();
+		} catch (JsonIndexException e) {
+			Assert.assertEquals(message, e.getMessage());
+		}
+		try {
+			handler.onName((char[]) null, 0, 0);
+			Assert.fail();
+		} catch (JsonIndexException e) {
+			Assert.assertEquals(message, e.getMessage());
+		}
+
+	}
+
+	@Test
+	public void onDocument_charactersAndCharSequences() {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+		char[] characters = "__n__s__".toCharArray();
+		StringBuilder builder = new StringBuilder();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName(characters, 2, 1);
+		handler.onString(characters, 5, 1);
+		handler.onNext();
+		builder.append("b");
+		handler.onName(builder);
+		builder.setLength(0);
+		builder.append("t");
+		handler.onString(builder);
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("{n=s, b=t}", result);
+
+	}
+
+	@Test
+	public void onCachedValue_missAndHit() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(1024);
+		CountingProducer producer = new CountingProducer();
+
+		for (int i = 0; i < 2; i++) {
+
+			JavaTextJsonHandler handler = new JavaTextJsonHandler();
+
+			handler.onDocumentBegin();
+			handler.onArrayBegin();
+			handler.onCachedValue(cache, "value", 1, producer);
+			handler.onNext();
+			handler.onNull();
+			handler.onArrayEnd();
+			handler.onDocumentEnd();
+
+			String result = handler.getResult();
+
+			Assert.assertEquals("[[foo, bar], null]", result);
+
+		}
+
+		Assert.assertEquals(1, producer.count);
+
+	}
+
+	@Test
+	public void onCachedValue_sharedWithJsonText() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(1024);
+		CountingProducer producer = new CountingProducer();
+
+		JsonTextJsonHandler jsonHandler = new JsonTextJsonHandler(Indentation.INVISIBLE);
+
+		jsonHandler.onDocumentBegin();
+		jsonHandler.onCachedValue(cache, "value", 1, producer);
+		jsonHandler.onDocumentEnd();
+
+		JavaTextJsonHandler javaHandler = new JavaTextJsonHandler(Indentation.INVISIBLE);
+
+		javaHandler.onDocumentBegin();
+		javaHandler.onCachedValue(cache, "value", 1, producer);
+		javaHandler.onDocumentEnd();
+
+		Assert.assertEquals("[\"foo\",\"bar\"]", jsonHandler.getResult());
+		Assert.assertEquals("[foo, bar]", javaHandler.getResult());
+		Assert.assertEquals(2, producer.count);
+
+	}
+
 	@Test
 	public void onDocument_complex() {
 
@@ -341,4 +639,20 @@ public class JavaTextJsonHandlerTests {
 
 	}
 
+	private static final class CountingProducer implements JsonProducer {
+
+		private int count;
+
+		@Override
+		public void produce(JsonHandler<?> handler) {
+			count++;
+			handler.onArrayBegin();
+			handler.onString("foo");
+			handler.onNext();
+			handler.onString("bar");
+			handler.onArrayEnd();
+		}
+
+	}
+
 }
@@ -0,0 +1,63 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class JsonTextInputStreamTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullProducer() {
+
+		new JsonTextInputStream(null);
+
+	}
+
+	@Test
+	public void read_multiByteCharacters() throws IOException {
+
+		InputStream inputStream = new JsonTextInputStream(new JsonProducer() {
+
+			@Override
+			public void produce(JsonHandler<?> handler) {
+				handler.onArrayBegin();
+				for (int i = 0; i < 1000; i++) {
+					if (0 != i) {
+						handler.onNext();
+					}
+					handler.onString("ä€𝄞");
+				}
+				handler.onArrayEnd();
+			}
+
+		}, Indentation.INVISIBLE);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		byte[] buffer = new byte[7];
+		int count;
+		while (-1 != (count = inputStream.read(buffer))) {
+			outputStream.write(buffer, 0, count);
+		}
+		inputStream.close();
+
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < 1000; i++) {
+			if (0 != i) {
+				builder.append(",");
+			}
+			builder.append("\"ä€𝄞\"");
+		}
+		builder.append("]");
+
+		Assert.assertEquals(builder.toString(), new String(outputStream.toByteArray(), "UTF-8"));
+
+	}
+
+}
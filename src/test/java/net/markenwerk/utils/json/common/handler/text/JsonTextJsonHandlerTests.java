@@ -1,8 +1,14 @@
 package net.markenwerk.utils.json.common.handler.text;
 
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import net.markenwerk.utils.json.common.JsonIndexException;
 import net.markenwerk.utils.json.common.JsonValueException;
 import net.markenwerk.utils.json.handler.JsonHandler;
 import net.markenwerk.utils.text.indentation.LineBreak;
@@ -112,6 +118,24 @@ public class JsonTextJsonHandlerTests {
 
 	}
 
+	@Test
+	public void onLong_cacheBoundaries() {
+
+		long[] values = new long[] { -129, -128, -1, 0, 1, 4095, 4096, Long.MIN_VALUE + 1, Long.MAX_VALUE - 1 };
+		for (long value : values) {
+
+			JsonHandler<String> handler = new JsonTextJsonHandler(INDENTATION);
+
+			handler.onDocumentBegin();
+			handler.onLong(value);
+			handler.onDocumentEnd();
+
+			Assert.assertEquals(Long.toString(value), handler.getResult());
+
+		}
+
+	}
+
 	@Test(expected = JsonValueException.class)
 	public void onDouble_infinite() {
 
@@ -235,6 +259,21 @@ public class JsonTextJsonHandlerTests {
 
 	}
 
+	@Test
+	public void onString_consecutiveEscapeSequances() {
+
+		JsonHandler<String> handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onString("\"\"foo\n\n");
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("\"\\\"\\\"foo\\n\\n\"", result);
+
+	}
+
 	@Test
 	public void onString_controllEscapeSequances() {
 
@@ -265,6 +304,473 @@ public class JsonTextJsonHandlerTests {
 
 	}
 
+	@Test
+	public void onString_asciiSafe() {
+
+		JsonHandler<String> handler = new JsonTextJsonHandler(INDENTATION, true);
+
+		handler.onDocumentBegin();
+		handler.onString("a\u00e4\u20ac\u007f~");
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("\"a\\u00e4\\u20ac\\u007f~\"", result);
+
+	}
+
+	@Test
+	public void onString_asciiSafeSurrogatePair() {
+
+		JsonHandler<String> handler = new JsonTextJsonHandler(INDENTATION, true);
+
+		handler.onDocumentBegin();
+		handler.onString("\uD834\uDD1E");
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("\"\\ud834\\udd1e\"", result);
+
+	}
+
+	@Test
+	public void onName_asciiSafe() {
+
+		JsonHandler<String> handler = new JsonTextJsonHandler(INDENTATION, true);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("\u00fc");
+		handler.onNull();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("{\n\"\\u00fc\": null\n}", result);
+
+	}
+
+	@Test(expected = JsonIndexException.class)
+	public void onName_nullCharSequence() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName((CharSequence) null);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onString_charactersOutOfBounds() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onString(new char[2], 1, 2);
+
+	}
+
+	@Test(expected = JsonIndexException.class)
+	public void onName_charactersOutOfBounds() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName(new char[2], -1, 2);
+
+	}
+
+	@Test
+	public void onString_nullOverloads() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+
+		String message = null;
+		try {
+			handler.onString((String) null);
+		} catch (JsonValueException e) {
+			message = e.getMessage();
+		}
+		try {
+			handler.onString((CharSequence) null);
+			Assert.fail();
+		} catch (JsonValueException e) {
+			Assert.assertEquals(message, e.getMessage());
+		}
+		try {
+			handler.onString((char[]) null, 0, 0);
+			Assert.fail();
+		} catch (JsonValueException e) {
+			Assert.assertEquals(message, e.getMessage());
+		}
+
+	}
+
+	@Test
+	public void onDocument_charactersAndCharSequences() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+		char[] characters = "__n\"__\ts__".toCharArray();
+		StringBuilder builder = new StringBuilder();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName(characters, 2, 2);
+		handler.onString(characters, 6, 2);
+		handler.onNext();
+		builder.append("b\n");
+		handler.onName(builder);
+		builder.setLength(0);
+		builder.append("/");
+		handler.onString(builder);
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("{\n\"n\\\"\": \"\\ts\",\n\"b\\n\": \"\\/\"\n}", result);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onStreamedString_null() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onStreamedString(null);
+		handler.onDocumentEnd();
+
+	}
+
+	@Test
+	public void onStreamedString_large() {
+
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			builder.append("\"\uD834\uDD1E/");
+		}
+		String value = builder.toString();
+
+		JsonTextJsonHandler streamingHandler = new JsonTextJsonHandler(INDENTATION, true);
+		streamingHandler.onDocumentBegin();
+		streamingHandler.onStreamedString(new StringReader(value));
+		streamingHandler.onDocumentEnd();
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION, true);
+		handler.onDocumentBegin();
+		handler.onString(value);
+		handler.onDocumentEnd();
+
+		Assert.assertEquals(handler.getResult(), streamingHandler.getResult());
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onChunkedString_null() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onChunkedString(null);
+		handler.onDocumentEnd();
+
+	}
+
+	@Test
+	public void onChunkedString_splitSurrogatePair() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onChunkedString(Arrays.asList("a\n\uD834", "\uDD1E", new StringBuilder("\"b")));
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("\"a\\n\uD834\uDD1E\\\"b\"", result);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onBinary_null() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onBinary((byte[]) null);
+		handler.onDocumentEnd();
+
+	}
+
+	@Test
+	public void onBinary_padding() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onBinary(new byte[0]);
+		handler.onNext();
+		handler.onBinary("f".getBytes());
+		handler.onNext();
+		handler.onBinary("fo".getBytes());
+		handler.onNext();
+		handler.onBinary("foo".getBytes());
+		handler.onNext();
+		handler.onBinary(new byte[] { (byte) 0xFB, (byte) 0xFF });
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("[\n\"\",\n\"Zg==\",\n\"Zm8=\",\n\"Zm9v\",\n\"+\\/8=\"\n]", result);
+
+	}
+
+	@Test
+	public void onBinary_sameAsString() {
+
+		JsonTextJsonHandler binaryHandler = new JsonTextJsonHandler(INDENTATION);
+		JsonTextJsonHandler stringHandler = new JsonTextJsonHandler(INDENTATION);
+
+		binaryHandler.onDocumentBegin();
+		binaryHandler.onBinary(new byte[] { (byte) 0xFB, (byte) 0xFF, (byte) 0xBF });
+		binaryHandler.onDocumentEnd();
+
+		stringHandler.onDocumentBegin();
+		stringHandler.onString("+/+/");
+		stringHandler.onDocumentEnd();
+
+		Assert.assertEquals(stringHandler.getResult(), binaryHandler.getResult());
+
+	}
+
+	@Test
+	public void onBinary_large() {
+
+		byte[] value = new byte[10000];
+		for (int i = 0; i < value.length; i++) {
+			value[i] = (byte) i;
+		}
+		StringBuilder builder = new StringBuilder("\"");
+		for (int i = 0; i < value.length; i += 3) {
+			builder.append(encode(value, i, Math.min(3, value.length - i)));
+		}
+		builder.append("\"");
+
+		JsonTextJsonHandler arrayHandler = new JsonTextJsonHandler(INDENTATION);
+		arrayHandler.onDocumentBegin();
+		arrayHandler.onBinary(value);
+		arrayHandler.onDocumentEnd();
+
+		JsonTextJsonHandler bufferHandler = new JsonTextJsonHandler(INDENTATION);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(value.length);
+		buffer.put(value).flip();
+		bufferHandler.onDocumentBegin();
+		bufferHandler.onBinary(buffer);
+		bufferHandler.onDocumentEnd();
+
+		Assert.assertEquals(builder.toString(), arrayHandler.getResult());
+		Assert.assertEquals(builder.toString(), bufferHandler.getResult());
+		Assert.assertEquals(0, buffer.remaining());
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onRawJson_null() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onRawJson(null);
+		handler.onDocumentEnd();
+
+	}
+
+	@Test
+	public void onRawJson_nonEmpty() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onNull();
+		handler.onNext();
+		handler.onRawJson("{\"a\":[1,\"/\"]}");
+		handler.onNext();
+		handler.onNull();
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("[\nnull,\n{\"a\":[1,\"/\"]},\nnull\n]", result);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onNumber_null() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onNumber(null);
+		handler.onDocumentEnd();
+
+	}
+
+	@Test
+	public void onNumber_invalid() {
+
+		String[] literals = new String[] { "", "-", "01", "1.", ".1", "1e", "1e+", "+1", "1 ", "NaN", "0x1" };
+		for (String literal : literals) {
+			JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+			try {
+				handler.onDocumentBegin();
+				handler.onNumber(literal);
+				Assert.fail(literal);
+			} catch (JsonValueException e) {
+			}
+		}
+
+	}
+
+	@Test
+	public void onNumber_valid() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onNumber("0");
+		handler.onNext();
+		handler.onNumber("-1.50");
+		handler.onNext();
+		handler.onNumber(new BigDecimal("12345678901234567890.123456789").toString());
+		handler.onNext();
+		handler.onNumber(new BigDecimal("1E+3").toString());
+		handler.onNext();
+		handler.onNumber(new StringBuilder("-0.5e-7"));
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("[\n0,\n-1.50,\n12345678901234567890.123456789,\n1E+3,\n-0.5e-7\n]", result);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onLongArray_null() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onLongArray(null, 0, 0);
+
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void onLongArray_outOfBounds() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onLongArray(new long[2], 1, 2);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onDoubleArray_notANumber() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onDoubleArray(new double[] { 1, Double.NaN }, 0, 2);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onStringArray_nullValue() {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onStringArray(new String[] { "foo", null }, 0, 2);
+
+	}
+
+	@Test
+	public void onArrays_sameAsEvents() {
+
+		WhitespaceIndentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+		JsonTextJsonHandler bulkHandler = new JsonTextJsonHandler(indentation);
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(indentation);
+
+		bulkHandler.onDocumentBegin();
+		bulkHandler.onObjectBegin();
+		bulkHandler.onName("l");
+		bulkHandler.onLongArray(new long[] { 0, 1, -2, 3 }, 1, 2);
+		bulkHandler.onNext();
+		bulkHandler.onName("d");
+		bulkHandler.onDoubleArray(new double[] { -23.42 }, 0, 1);
+		bulkHandler.onNext();
+		bulkHandler.onName("b");
+		bulkHandler.onBooleanArray(new boolean[] { true, false }, 0, 2);
+		bulkHandler.onNext();
+		bulkHandler.onName("s");
+		bulkHandler.onStringArray(new String[] { "foo", "\"bar\"" }, 0, 2);
+		bulkHandler.onNext();
+		bulkHandler.onName("e");
+		bulkHandler.onLongArray(new long[0], 0, 0);
+		bulkHandler.onObjectEnd();
+		bulkHandler.onDocumentEnd();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("l");
+		handler.onArrayBegin();
+		handler.onLong(1);
+		handler.onNext();
+		handler.onLong(-2);
+		handler.onArrayEnd();
+		handler.onNext();
+		handler.onName("d");
+		handler.onArrayBegin();
+		handler.onDouble(-23.42);
+		handler.onArrayEnd();
+		handler.onNext();
+		handler.onName("b");
+		handler.onArrayBegin();
+		handler.onBoolean(true);
+		handler.onNext();
+		handler.onBoolean(false);
+		handler.onArrayEnd();
+		handler.onNext();
+		handler.onName("s");
+		handler.onArrayBegin();
+		handler.onString("foo");
+		handler.onNext();
+		handler.onString("\"bar\"");
+		handler.onArrayEnd();
+		handler.onNext();
+		handler.onName("e");
+		handler.onArrayBegin();
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		Assert.assertEquals(handler.getResult(), bulkHandler.getResult());
+
+	}
+
 	@Test
 	public void onArray_empty() {
 
@@ -332,6 +838,111 @@ public class JsonTextJsonHandlerTests {
 
 	}
 
+	@Test
+	public void onCachedValue_missAndHit() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(1024);
+		CountingProducer producer = new CountingProducer();
+
+		for (int i = 0; i < 2; i++) {
+
+			JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+			handler.onDocumentBegin();
+			handler.onArrayBegin();
+			handler.onCachedValue(cache, "value", 1, producer);
+			handler.onNext();
+			handler.onNull();
+			handler.onArrayEnd();
+			handler.onDocumentEnd();
+
+			String result = handler.getResult();
+
+			Assert.assertEquals("[\n[\n\"foo\",\n\"bar\"\n],\nnull\n]", result);
+
+		}
+
+		Assert.assertEquals(1, producer.count);
+
+	}
+
+	@Test
+	public void onCachedValue_equivalentIndentations() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(1024);
+		CountingProducer producer = new CountingProducer();
+		String[] results = new String[3];
+
+		for (int i = 0; i < 3; i++) {
+
+			int width = i < 2 ? 1 : 2;
+			JsonTextJsonHandler handler = new JsonTextJsonHandler(new WhitespaceIndentation(Whitespace.SPACE, width,
+					LineBreak.UNIX));
+
+			handler.onDocumentBegin();
+			handler.onCachedValue(cache, "value", 1, producer);
+			handler.onDocumentEnd();
+
+			results[i] = handler.getResult();
+
+		}
+
+		Assert.assertEquals("[\n \"foo\",\n \"bar\"\n]", results[0]);
+		Assert.assertEquals(results[0], results[1]);
+		Assert.assertEquals("[\n  \"foo\",\n  \"bar\"\n]", results[2]);
+		Assert.assertEquals(2, producer.count);
+
+	}
+
+	@Test
+	public void onCachedValue_differentDepth() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(1024);
+		CountingProducer producer = new CountingProducer();
+		WhitespaceIndentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 1, LineBreak.UNIX);
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(indentation);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("a");
+		handler.onCachedValue(cache, "value", 1, producer);
+		handler.onNext();
+		handler.onName("b");
+		handler.onArrayBegin();
+		handler.onCachedValue(cache, "value", 1, producer);
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		String result = handler.getResult();
+
+		Assert.assertEquals("{\n \"a\": [\n  \"foo\",\n  \"bar\"\n ],\n \"b\": [\n  [\n   \"foo\",\n   \"bar\"\n  ]\n ]\n}",
+				result);
+		Assert.assertEquals(2, producer.count);
+
+	}
+
+	@Test
+	public void onCachedValue_newVersion() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(1024);
+		CountingProducer producer = new CountingProducer();
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onCachedValue(cache, "value", 1, producer);
+		handler.onNext();
+		handler.onCachedValue(cache, "value", 2, producer);
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+
+		Assert.assertEquals(2, producer.count);
+
+	}
+
 	@Test
 	public void onDocument_complex() {
 
@@ -390,4 +1001,33 @@ public class JsonTextJsonHandlerTests {
 
 	}
 
+	private static String encode(byte[] bytes, int offset, int length) {
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		int bits = 0;
+		for (int i = 0; i < 3; i++) {
+			bits = (bits << 8) | (i < length ? bytes[offset + i] & 0xFF : 0);
+		}
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 4; i++) {
+			builder.append(i <= length ? alphabet.charAt((bits >>> (18 - 6 * i)) & 0x3F) : '=');
+		}
+		return builder.toString().replace("/", "\\/");
+	}
+
+	private static final class CountingProducer implements JsonProducer {
+
+		private int count;
+
+		@Override
+		public void produce(JsonHandler<?> handler) {
+			count++;
+			handler.onArrayBegin();
+			handler.onString("foo");
+			handler.onNext();
+			handler.onString("bar");
+			handler.onArrayEnd();
+		}
+
+	}
+
 }
@@ -0,0 +1,163 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class JsonTextReaderTests {
+
+	private static final Executor EXECUTOR = new Executor() {
+
+		@Override
+		public void execute(Runnable runnable) {
+			new Thread(runnable).start();
+		}
+
+	};
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullProducer() {
+
+		new JsonTextReader(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new JsonTextReader(new ArrayProducer(1), null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullExecutor() {
+
+		new JsonTextReader(new ArrayProducer(1), Indentation.INVISIBLE, null, 1, 1);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveChunkSize() {
+
+		new JsonTextReader(new ArrayProducer(1), Indentation.INVISIBLE, EXECUTOR, 0, 1);
+
+	}
+
+	@Test
+	public void read_smallChunks() throws IOException {
+
+		ArrayProducer producer = new ArrayProducer(1000);
+		Reader reader = new JsonTextReader(producer, Indentation.INVISIBLE, EXECUTOR, 7, 2);
+
+		String result = readFully(reader);
+		reader.close();
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(Indentation.INVISIBLE);
+		handler.onDocumentBegin();
+		producer.produce(handler);
+		handler.onDocumentEnd();
+
+		Assert.assertEquals(handler.getResult(), result);
+
+	}
+
+	@Test(expected = IOException.class)
+	public void read_failingProducer() throws IOException {
+
+		Reader reader = new JsonTextReader(new JsonProducer() {
+
+			@Override
+			public void produce(JsonHandler<?> handler) {
+				handler.onDouble(Double.NaN);
+			}
+
+		});
+
+		readFully(reader);
+
+	}
+
+	@Test(expected = IOException.class)
+	public void read_closed() throws IOException {
+
+		Reader reader = new JsonTextReader(new ArrayProducer(1000), Indentation.INVISIBLE, EXECUTOR, 7, 2);
+
+		reader.read();
+		reader.close();
+		reader.read();
+
+	}
+
+	@Test
+	public void close_doesNotLeakInterrupt() throws Exception {
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			for (int i = 0; i < 100; i++) {
+				Reader reader = new JsonTextReader(new ArrayProducer(1000), Indentation.INVISIBLE, executor, 7, 2);
+
+				reader.read();
+				reader.close();
+
+				Future<Boolean> interrupted = executor.submit(new Callable<Boolean>() {
+
+					@Override
+					public Boolean call() {
+						return Thread.currentThread().isInterrupted();
+					}
+
+				});
+
+				Assert.assertFalse(interrupted.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+	}
+
+	private static String readFully(Reader reader) throws IOException {
+		StringBuilder builder = new StringBuilder();
+		char[] buffer = new char[5];
+		int count;
+		while (-1 != (count = reader.read(buffer))) {
+			builder.append(buffer, 0, count);
+		}
+		return builder.toString();
+	}
+
+	private static final class ArrayProducer implements JsonProducer {
+
+		private final int size;
+
+		private ArrayProducer(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public void produce(JsonHandler<?> handler) {
+			handler.onArrayBegin();
+			for (int i = 0; i < size; i++) {
+				if (0 != i) {
+					handler.onNext();
+				}
+				handler.onString("value ä " + i);
+			}
+			handler.onArrayEnd();
+		}
+
+	}
+
+}
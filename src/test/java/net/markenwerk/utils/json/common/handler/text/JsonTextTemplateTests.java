@@ -0,0 +1,164 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.text.indentation.LineBreak;
+import net.markenwerk.utils.text.indentation.Whitespace;
+import net.markenwerk.utils.text.indentation.WhitespaceIndentation;
+
+@SuppressWarnings("javadoc")
+public class JsonTextTemplateTests {
+
+	private static final WhitespaceIndentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 0,
+			LineBreak.UNIX);
+
+	private StringBuilder builder;
+
+	@Before
+	public void prepareStringBuilder() {
+
+		builder = new StringBuilder();
+
+	}
+
+	@Test
+	public void compile_static() {
+
+		JsonTextTemplateCompiler compiler = new JsonTextTemplateCompiler(INDENTATION);
+
+		compiler.onDocumentBegin();
+		compiler.onArrayBegin();
+		compiler.onNull();
+		compiler.onArrayEnd();
+		compiler.onDocumentEnd();
+
+		JsonTextTemplate template = compiler.getResult();
+		JsonTextTemplateWriter writer = template.newWriter(builder);
+
+		Assert.assertEquals(0, template.getSlotCount());
+		Assert.assertTrue(writer.isComplete());
+		Assert.assertEquals("[\nnull\n]", builder.toString());
+
+	}
+
+	@Test
+	public void compile_slots() {
+
+		JsonTextTemplateCompiler compiler = new JsonTextTemplateCompiler(INDENTATION);
+
+		compiler.onDocumentBegin();
+		compiler.onObjectBegin();
+		compiler.onName("n");
+		compiler.onSlot();
+		compiler.onNext();
+		compiler.onName("b");
+		compiler.onSlot();
+		compiler.onNext();
+		compiler.onName("l");
+		compiler.onSlot();
+		compiler.onNext();
+		compiler.onName("d");
+		compiler.onSlot();
+		compiler.onNext();
+		compiler.onName("s");
+		compiler.onSlot();
+		compiler.onNext();
+		compiler.onName("r");
+		compiler.onSlot();
+		compiler.onObjectEnd();
+		compiler.onDocumentEnd();
+
+		JsonTextTemplate template = compiler.getResult();
+		JsonTextTemplateWriter writer = template.newWriter(builder);
+		writer.writeNull();
+		writer.writeBoolean(true);
+		writer.writeLong(-42);
+		writer.writeDouble(-23.42);
+		writer.writeString("\"foo\"");
+		writer.writeRawJson("[]");
+
+		Assert.assertEquals(6, template.getSlotCount());
+		Assert.assertTrue(writer.isComplete());
+		Assert.assertEquals(
+				"{\n\"n\": null,\n\"b\": true,\n\"l\": -42,\n\"d\": -23.42,\n\"s\": \"\\\"foo\\\"\",\n\"r\": []\n}",
+				builder.toString());
+
+	}
+
+	@Test
+	public void write_repeatedly() {
+
+		JsonTextTemplateCompiler compiler = new JsonTextTemplateCompiler(INDENTATION);
+
+		compiler.onDocumentBegin();
+		compiler.onArrayBegin();
+		compiler.onSlot();
+		compiler.onArrayEnd();
+		compiler.onDocumentEnd();
+
+		JsonTextTemplate template = compiler.getResult();
+		template.newWriter(builder).writeLong(1);
+		template.newWriter(builder).writeLong(2);
+
+		Assert.assertEquals("[\n1\n][\n2\n]", builder.toString());
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void write_tooManyValues() {
+
+		JsonTextTemplateCompiler compiler = new JsonTextTemplateCompiler(INDENTATION);
+
+		compiler.onDocumentBegin();
+		compiler.onSlot();
+		compiler.onDocumentEnd();
+
+		JsonTextTemplateWriter writer = compiler.getResult().newWriter(builder);
+		writer.writeNull();
+		writer.writeNull();
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void writeDouble_notANumber() {
+
+		JsonTextTemplateCompiler compiler = new JsonTextTemplateCompiler(INDENTATION);
+
+		compiler.onDocumentBegin();
+		compiler.onSlot();
+		compiler.onDocumentEnd();
+
+		compiler.getResult().newWriter(builder).writeDouble(Double.NaN);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void writeString_null() {
+
+		JsonTextTemplateCompiler compiler = new JsonTextTemplateCompiler(INDENTATION);
+
+		compiler.onDocumentBegin();
+		compiler.onSlot();
+		compiler.onDocumentEnd();
+
+		compiler.getResult().newWriter(builder).writeString(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void newWriter_nullAppendable() {
+
+		JsonTextTemplateCompiler compiler = new JsonTextTemplateCompiler(INDENTATION);
+
+		compiler.onDocumentBegin();
+		compiler.onNull();
+		compiler.onDocumentEnd();
+
+		compiler.getResult().newWriter(null);
+
+	}
+
+}
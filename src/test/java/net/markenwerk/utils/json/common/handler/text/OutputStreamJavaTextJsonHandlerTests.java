@@ -0,0 +1,91 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class OutputStreamJavaTextJsonHandlerTests {
+
+	private ByteArrayOutputStream outputStream;
+
+	@Before
+	public void prepareOutputStream() {
+
+		outputStream = new ByteArrayOutputStream();
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullOutputStream() {
+
+		new OutputStreamJavaTextJsonHandler(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullCharset() {
+
+		new OutputStreamJavaTextJsonHandler(outputStream, null, Indentation.INVISIBLE);
+
+	}
+
+	@Test
+	public void onDocument_complex() throws IOException {
+
+		JsonHandler<Void> handler = new OutputStreamJavaTextJsonHandler(outputStream);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("ä");
+		handler.onNull();
+		handler.onNext();
+		handler.onName("a");
+		handler.onArrayBegin();
+		handler.onString("€");
+		handler.onNext();
+		handler.onLong(42);
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("{ä=null, a=[€, 42]}", outputStream.toString("UTF-8"));
+
+	}
+
+	@Test
+	public void onString_isoLatin1() throws IOException {
+
+		JsonHandler<Void> handler = new OutputStreamJavaTextJsonHandler(outputStream, Charset.forName("ISO-8859-1"),
+				Indentation.INVISIBLE);
+
+		handler.onDocumentBegin();
+		handler.onString("ä€𝄞");
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("ä??", outputStream.toString("ISO-8859-1"));
+
+	}
+
+	@Test
+	public void onString_statefulCharset() throws IOException {
+
+		Charset charset = Charset.forName("ISO-2022-JP");
+		JsonHandler<Void> handler = new OutputStreamJavaTextJsonHandler(outputStream, charset, Indentation.INVISIBLE);
+
+		handler.onDocumentBegin();
+		handler.onString("日本語");
+		handler.onDocumentEnd();
+
+		Assert.assertArrayEquals("日本語".getBytes(charset), outputStream.toByteArray());
+
+	}
+
+}
@@ -0,0 +1,284 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.LineBreak;
+import net.markenwerk.utils.text.indentation.Whitespace;
+import net.markenwerk.utils.text.indentation.WhitespaceIndentation;
+
+@SuppressWarnings("javadoc")
+public class OutputStreamJsonTextJsonHandlerTests {
+
+	private static final WhitespaceIndentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 0,
+			LineBreak.UNIX);
+
+	private ByteArrayOutputStream outputStream;
+
+	@Before
+	public void prepareOutputStream() {
+
+		outputStream = new ByteArrayOutputStream();
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullOutputStream() {
+
+		new OutputStreamJsonTextJsonHandler(null, INDENTATION);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new OutputStreamJsonTextJsonHandler(outputStream, null);
+
+	}
+
+	@Test
+	public void onDocument_complex() throws IOException {
+
+		JsonHandler<Void> handler = new OutputStreamJsonTextJsonHandler(outputStream, INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("ä");
+		handler.onNull();
+		handler.onNext();
+		handler.onName("a");
+		handler.onArrayBegin();
+		handler.onString("€\n");
+		handler.onNext();
+		handler.onString("𝄞");
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		String result = outputStream.toString("UTF-8");
+
+		Assert.assertEquals("{\n\"ä\": null,\n\"a\": [\n\"€\\n\",\n\"𝄞\"\n]\n}", result);
+
+	}
+
+	@Test
+	public void onDocument_large() throws IOException {
+
+		JsonHandler<Void> handler = new OutputStreamJsonTextJsonHandler(outputStream, INDENTATION);
+		JsonHandler<String> referenceHandler = new JsonTextJsonHandler(INDENTATION);
+
+		for (JsonHandler<?> currentHandler : new JsonHandler<?>[] { handler, referenceHandler }) {
+			currentHandler.onDocumentBegin();
+			currentHandler.onArrayBegin();
+			for (int i = 0; i < 10000; i++) {
+				if (0 != i) {
+					currentHandler.onNext();
+				}
+				currentHandler.onString("ä€𝄞" + i);
+			}
+			currentHandler.onArrayEnd();
+			currentHandler.onDocumentEnd();
+		}
+
+		Assert.assertEquals(referenceHandler.getResult(), outputStream.toString("UTF-8"));
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onUtf8String_null() {
+
+		OutputStreamJsonTextJsonHandler handler = new OutputStreamJsonTextJsonHandler(outputStream, INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onUtf8String(null, 0, 0);
+
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void onUtf8String_outOfBounds() {
+
+		OutputStreamJsonTextJsonHandler handler = new OutputStreamJsonTextJsonHandler(outputStream, INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onUtf8String(new byte[2], 1, 2);
+
+	}
+
+	@Test
+	public void onUtf8String_passthrough() throws IOException {
+
+		OutputStreamJsonTextJsonHandler handler = new OutputStreamJsonTextJsonHandler(outputStream, INDENTATION);
+		byte[] bytes = "__ä\"€/\t𝄞__".getBytes("UTF-8");
+
+		handler.onDocumentBegin();
+		handler.onUtf8String(bytes, 2, bytes.length - 4);
+		handler.onDocumentEnd();
+
+		String result = outputStream.toString("UTF-8");
+
+		Assert.assertEquals("\"ä\\\"€\\/\\t𝄞\"", result);
+
+	}
+
+	@Test
+	public void onUtf8String_asciiSafe() throws IOException {
+
+		OutputStreamJsonTextJsonHandler handler = new OutputStreamJsonTextJsonHandler(outputStream, INDENTATION,
+				true);
+		byte[] bytes = "ä\"".getBytes("UTF-8");
+
+		handler.onDocumentBegin();
+		handler.onUtf8String(bytes, 0, bytes.length);
+		handler.onDocumentEnd();
+
+		String result = outputStream.toString("UTF-8");
+
+		Assert.assertEquals("\"\\u00e4\\\"\"", result);
+
+	}
+
+	@Test
+	public void append_splitSurrogatePair() throws IOException {
+
+		OutputStreamAppendable appendable = new OutputStreamAppendable(outputStream);
+
+		appendable.append('\uD834');
+		appendable.append("\uDD1E\uDD1E");
+		appendable.append('\uD834');
+		appendable.close();
+
+		String result = outputStream.toString("UTF-8");
+
+		Assert.assertEquals("𝄞??", result);
+
+	}
+
+	@Test
+	public void onString_isoLatin1() throws IOException {
+
+		JsonHandler<Void> handler = new OutputStreamJsonTextJsonHandler(outputStream, Charset.forName("ISO-8859-1"),
+				INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onString("ä€𝄞");
+		handler.onDocumentEnd();
+
+		Assert.assertArrayEquals("\"\u00e4\\u20ac\\ud834\\udd1e\"".getBytes("ISO-8859-1"), outputStream.toByteArray());
+
+	}
+
+	@Test
+	public void onString_usAscii() throws IOException {
+
+		JsonHandler<Void> handler = new OutputStreamJsonTextJsonHandler(outputStream, Charset.forName("US-ASCII"),
+				INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onString("aä");
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("\"a\\u00e4\"", outputStream.toString("US-ASCII"));
+
+	}
+
+	@Test
+	public void onString_otherCharset() throws IOException {
+
+		Charset charset = Charset.forName("windows-1252");
+		JsonHandler<Void> handler = new OutputStreamJsonTextJsonHandler(outputStream, charset, INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onString("ä€\u0142");
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("\"ä€\\u0142\"", outputStream.toString("windows-1252"));
+
+	}
+
+	@Test
+	public void onString_otherCharsetSupplementaryCharacter() throws IOException {
+
+		Charset charset = Charset.forName("windows-1252");
+		JsonHandler<Void> handler = new OutputStreamJsonTextJsonHandler(outputStream, charset, INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onString("a😀bł");
+		handler.onNext();
+		handler.onString("\uD83Dc\uDE00");
+		handler.onNext();
+		handler.onString("d\uD83D");
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("[\n\"a\\ud83d\\ude00b\\u0142\",\n\"\\ud83dc\\ude00\",\n\"d\\ud83d\"\n]",
+				outputStream.toString("windows-1252"));
+
+	}
+
+	@Test
+	public void onString_encodableSupplementaryCharacter() throws IOException {
+
+		Charset charset = Charset.forName("UTF-16BE");
+		JsonHandler<Void> handler = new OutputStreamJsonTextJsonHandler(outputStream, charset, INDENTATION);
+
+		handler.onDocumentBegin();
+		handler.onString("a😀b");
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("\"a😀b\"", outputStream.toString("UTF-16BE"));
+
+	}
+
+	@Test
+	public void onUtf8String_otherCharset() throws IOException {
+
+		OutputStreamJsonTextJsonHandler handler = new OutputStreamJsonTextJsonHandler(outputStream,
+				Charset.forName("ISO-8859-1"), INDENTATION);
+		byte[] bytes = "ä€".getBytes("UTF-8");
+
+		handler.onDocumentBegin();
+		handler.onUtf8String(bytes, 0, bytes.length);
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("\"ä\\u20ac\"", outputStream.toString("ISO-8859-1"));
+
+	}
+
+	@Test
+	public void append_utf16() throws IOException {
+
+		OutputStreamAppendable appendable = new OutputStreamAppendable(outputStream, Charset.forName("UTF-16BE"));
+
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			builder.append("ä€𝄞");
+		}
+		appendable.append(builder);
+		appendable.close();
+
+		Assert.assertArrayEquals(builder.toString().getBytes("UTF-16BE"), outputStream.toByteArray());
+
+	}
+
+	@Test
+	public void append_isoLatin1SurrogatePair() throws IOException {
+
+		OutputStreamAppendable appendable = new OutputStreamAppendable(outputStream, Charset.forName("ISO-8859-1"));
+
+		appendable.append("a\uD834");
+		appendable.append("\uDD1Eb\uDD1E");
+		appendable.close();
+
+		Assert.assertEquals("a?b?", outputStream.toString("ISO-8859-1"));
+
+	}
+
+}
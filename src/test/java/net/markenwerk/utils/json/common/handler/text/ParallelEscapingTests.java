@@ -0,0 +1,207 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class ParallelEscapingTests {
+
+	private static final String VALUE = "a\"b\\c/d\ne\u0001f\u007Fgäh€i😀j";
+
+	private ExecutorService executor;
+
+	@Before
+	public void prepareExecutor() {
+
+		executor = Executors.newFixedThreadPool(4);
+
+	}
+
+	@After
+	public void shutdownExecutor() {
+
+		executor.shutdownNow();
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullExecutor() {
+
+		new ParallelEscaping(null, 1);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveThreshold() {
+
+		new ParallelEscaping(executor, 0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_tooSmallChunkSize() {
+
+		new ParallelEscaping(executor, 1, 1, 1);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveParallelism() {
+
+		new ParallelEscaping(executor, 1, 2, 0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullParallelEscaping() {
+
+		new JsonTextJsonHandler(Indentation.INVISIBLE, false, DoubleFormat.SHORTEST, null);
+
+	}
+
+	@Test
+	public void onString_sameAsSequential() {
+
+		for (int chunkSize = 2; chunkSize < VALUE.length() + 2; chunkSize++) {
+			ParallelEscaping parallelEscaping = new ParallelEscaping(executor, 1, chunkSize, 2);
+
+			Assert.assertEquals(render(VALUE, false, ParallelEscaping.DISABLED),
+					render(VALUE, false, parallelEscaping));
+			Assert.assertEquals(render(VALUE, true, ParallelEscaping.DISABLED),
+					render(VALUE, true, parallelEscaping));
+		}
+
+	}
+
+	@Test
+	public void onString_characters() {
+
+		ParallelEscaping parallelEscaping = new ParallelEscaping(executor, 1, 3, 2);
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(Indentation.INVISIBLE, false, DoubleFormat.SHORTEST,
+				parallelEscaping);
+		char[] characters = ("xx" + VALUE + "xx").toCharArray();
+
+		handler.onDocumentBegin();
+		handler.onArrayBegin();
+		handler.onString(characters, 2, VALUE.length());
+		handler.onArrayEnd();
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("[\"a\\\"b\\\\c\\/d\\ne\\u0001f\u007Fgäh€i😀j\"]", handler.getResult());
+
+	}
+
+	@Test
+	public void onString_surrogatePairAtChunkBoundary() throws IOException {
+
+		String value = "ab😀cd😀";
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JsonHandler<Void> handler = new OutputStreamJsonTextJsonHandler(outputStream, Charset.forName("UTF-8"),
+				Indentation.INVISIBLE, false, DoubleFormat.SHORTEST, new ParallelEscaping(executor, 1, 3, 1));
+
+		handler.onDocumentBegin();
+		handler.onString(value);
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("\"" + value + "\"", outputStream.toString("UTF-8"));
+
+	}
+
+	@Test
+	public void onString_belowThreshold() {
+
+		final AtomicInteger count = new AtomicInteger();
+		Executor countingExecutor = new Executor() {
+
+			@Override
+			public void execute(Runnable runnable) {
+				count.incrementAndGet();
+				runnable.run();
+			}
+
+		};
+		ParallelEscaping parallelEscaping = new ParallelEscaping(countingExecutor, 10, 2, 1);
+
+		render("short", false, parallelEscaping);
+
+		Assert.assertEquals(0, count.get());
+
+		render("not so short", false, parallelEscaping);
+
+		Assert.assertEquals(12, count.get());
+
+	}
+
+	@Test
+	public void onString_rejectingExecutor() {
+
+		Executor rejectingExecutor = new Executor() {
+
+			@Override
+			public void execute(Runnable runnable) {
+				throw new RejectedExecutionException();
+			}
+
+		};
+
+		String result = render(VALUE, false, new ParallelEscaping(rejectingExecutor, 1, 4, 2));
+
+		Assert.assertEquals(render(VALUE, false, ParallelEscaping.DISABLED), result);
+
+	}
+
+	@Test
+	public void onString_renderedOnSameExecutor() throws Exception {
+
+		final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> result = singleThreadExecutor.submit(new Callable<String>() {
+
+				@Override
+				public String call() {
+					return render(VALUE, false, new ParallelEscaping(singleThreadExecutor, 1, 4, 2));
+				}
+
+			});
+
+			Assert.assertEquals(render(VALUE, false, ParallelEscaping.DISABLED), result.get(10, TimeUnit.SECONDS));
+		} finally {
+			singleThreadExecutor.shutdownNow();
+		}
+
+	}
+
+	private static String render(String value, boolean asciiSafe, ParallelEscaping parallelEscaping) {
+
+		JsonHandler<String> handler = new JsonTextJsonHandler(Indentation.INVISIBLE, asciiSafe,
+				DoubleFormat.SHORTEST, parallelEscaping);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName(value);
+		handler.onString(value);
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		return handler.getResult();
+
+	}
+
+}
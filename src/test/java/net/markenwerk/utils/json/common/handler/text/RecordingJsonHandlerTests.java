@@ -0,0 +1,102 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.common.JsonIndexException;
+import net.markenwerk.utils.json.common.JsonValueException;
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class RecordingJsonHandlerTests {
+
+	@Test(expected = JsonIndexException.class)
+	public void onName_null() {
+
+		JsonHandler<JsonEventTape> handler = new RecordingJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName(null);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onDouble_notANumber() {
+
+		JsonHandler<JsonEventTape> handler = new RecordingJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onDouble(Double.NaN);
+
+	}
+
+	@Test(expected = JsonValueException.class)
+	public void onString_null() {
+
+		JsonHandler<JsonEventTape> handler = new RecordingJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onString(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void replay_nullHandler() {
+
+		new RecordingJsonHandler().getResult().replay(null);
+
+	}
+
+	@Test
+	public void replay_empty() {
+
+		JsonEventTape tape = new RecordingJsonHandler().getResult();
+
+		Assert.assertEquals(0, tape.getEventCount());
+		Assert.assertEquals("", tape.replay(new JsonTextJsonHandler()));
+
+	}
+
+	@Test
+	public void replay_multipleHandlers() {
+
+		JsonHandler<JsonEventTape> handler = new RecordingJsonHandler();
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("n");
+		handler.onNull();
+		handler.onNext();
+		handler.onName("b");
+		handler.onBoolean(true);
+		handler.onNext();
+		handler.onName("l");
+		handler.onLong(-42);
+		handler.onNext();
+		handler.onName("d");
+		handler.onDouble(-23.42);
+		handler.onNext();
+		handler.onName("a");
+		handler.onArrayBegin();
+		handler.onString("foo");
+		handler.onNext();
+		handler.onString("foo");
+		handler.onNext();
+		handler.onBoolean(false);
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		JsonEventTape tape = handler.getResult();
+
+		Assert.assertEquals(24, tape.getEventCount());
+		Assert.assertEquals("{\"n\":null,\"b\":true,\"l\":-42,\"d\":-23.42,\"a\":[\"foo\",\"foo\",false]}",
+				tape.replay(new JsonTextJsonHandler(Indentation.INVISIBLE)));
+		Assert.assertEquals("{n=null, b=true, l=-42, d=-23.42, a=[foo, foo, false]}",
+				tape.replay(new JavaTextJsonHandler()));
+
+	}
+
+}
@@ -0,0 +1,143 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class RedactingJsonHandlerTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullHandler() {
+
+		new RedactingJsonHandler<String>(null, new JsonNameMatcher(Collections.<String> emptyList()));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullMatcher() {
+
+		new RedactingJsonHandler<String>(new JavaTextJsonHandler(), null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullMask() {
+
+		new RedactingJsonHandler<String>(new JavaTextJsonHandler(), new JsonNameMatcher(
+				Collections.<String> emptyList()), null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void createMatcher_nullPattern() {
+
+		new JsonNameMatcher(Arrays.asList("foo", null));
+
+	}
+
+	@Test
+	public void matcher_exact() {
+
+		JsonNameMatcher matcher = new JsonNameMatcher(Arrays.asList("password"));
+
+		Assert.assertTrue(matcher.matches("password"));
+		Assert.assertFalse(matcher.matches("Password"));
+		Assert.assertFalse(matcher.matches("passwords"));
+		Assert.assertFalse(matcher.matches(null));
+
+	}
+
+	@Test
+	public void matcher_ignoreCase() {
+
+		JsonNameMatcher matcher = new JsonNameMatcher(Arrays.asList("password", "*Token"), true);
+
+		Assert.assertTrue(matcher.matches("PassWord"));
+		Assert.assertTrue(matcher.matches("accessTOKEN"));
+		Assert.assertFalse(matcher.matches("tokens"));
+
+	}
+
+	@Test
+	public void matcher_pattern() {
+
+		JsonNameMatcher matcher = new JsonNameMatcher(Arrays.asList("*token*", "iban*", "a*b*c"));
+
+		Assert.assertTrue(matcher.matches("token"));
+		Assert.assertTrue(matcher.matches("accesstokens"));
+		Assert.assertTrue(matcher.matches("iban"));
+		Assert.assertTrue(matcher.matches("ibanNumber"));
+		Assert.assertTrue(matcher.matches("abc"));
+		Assert.assertTrue(matcher.matches("axxbxxc"));
+		Assert.assertFalse(matcher.matches("tok"));
+		Assert.assertFalse(matcher.matches("myiban"));
+		Assert.assertFalse(matcher.matches("ac"));
+		Assert.assertFalse(matcher.matches("acb"));
+
+	}
+
+	@Test
+	public void onDocument_redacted() {
+
+		JsonNameMatcher matcher = new JsonNameMatcher(Arrays.asList("password", "*Token", "iban"));
+		RedactingJsonHandler<String> handler = new RedactingJsonHandler<String>(new JavaTextJsonHandler(), matcher);
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("user");
+		handler.onString("foo");
+		handler.onNext();
+		handler.onName("password");
+		handler.onString("secret");
+		handler.onNext();
+		handler.onName("accessToken");
+		handler.onLong(42);
+		handler.onNext();
+		handler.onName("accounts");
+		handler.onArrayBegin();
+		handler.onObjectBegin();
+		handler.onName("iban");
+		handler.onObjectBegin();
+		handler.onName("country");
+		handler.onString("DE");
+		handler.onNext();
+		handler.onName("digits");
+		handler.onArrayBegin();
+		handler.onLong(1);
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onNext();
+		handler.onName("active");
+		handler.onBoolean(true);
+		handler.onObjectEnd();
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("{user=foo, password=***, accessToken=***, accounts=[{iban=***, active=true}]}",
+				handler.getResult());
+
+	}
+
+	@Test
+	public void onDocument_customMask() {
+
+		JsonNameMatcher matcher = new JsonNameMatcher(Arrays.asList("password"));
+		RedactingJsonHandler<String> handler = new RedactingJsonHandler<String>(new JsonTextJsonHandler(), matcher,
+				"<redacted>");
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("password");
+		handler.onNull();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		Assert.assertEquals("{\n\t\"password\": \"<redacted>\"\n}", handler.getResult());
+
+	}
+
+}
@@ -0,0 +1,88 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.text.indentation.Indentation;
+import net.markenwerk.utils.text.indentation.LineBreak;
+import net.markenwerk.utils.text.indentation.Whitespace;
+import net.markenwerk.utils.text.indentation.WhitespaceIndentation;
+
+@SuppressWarnings("javadoc")
+public class RenderedJsonCacheTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeMaximumSize() {
+
+		new RenderedJsonCache(-1);
+
+	}
+
+	@Test
+	public void put_evictsLeastRecentlyUsed() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(12);
+		RenderedJsonCache.Key first = createKey("first");
+		RenderedJsonCache.Key second = createKey("second");
+		RenderedJsonCache.Key third = createKey("third");
+
+		cache.put(first, "foo");
+		cache.put(second, "bar");
+		cache.get(first);
+		cache.put(third, "baz");
+
+		Assert.assertEquals("foo", cache.get(first));
+		Assert.assertNull(cache.get(second));
+		Assert.assertEquals("baz", cache.get(third));
+		Assert.assertEquals(12, cache.getSize());
+
+	}
+
+	@Test
+	public void put_tooLarge() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(4);
+		RenderedJsonCache.Key key = createKey("key");
+
+		cache.put(key, "foo");
+
+		Assert.assertNull(cache.get(key));
+		Assert.assertEquals(0, cache.getSize());
+
+	}
+
+	@Test
+	public void get_equivalentIndentation() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(12);
+		RenderedJsonCache.Key first = new RenderedJsonCache.Key("key", 0, Object.class,
+				new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX), false, DoubleFormat.SHORTEST, 0);
+		RenderedJsonCache.Key second = new RenderedJsonCache.Key("key", 0, Object.class,
+				new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX), false, DoubleFormat.SHORTEST, 0);
+
+		cache.put(first, "foo");
+
+		Assert.assertEquals("foo", cache.get(second));
+
+	}
+
+	@Test
+	public void clear() {
+
+		RenderedJsonCache cache = new RenderedJsonCache(12);
+		RenderedJsonCache.Key key = createKey("key");
+
+		cache.put(key, "foo");
+		cache.clear();
+
+		Assert.assertNull(cache.get(key));
+		Assert.assertEquals(0, cache.getSize());
+
+	}
+
+	private static RenderedJsonCache.Key createKey(String identity) {
+		return new RenderedJsonCache.Key(identity, 0, Object.class, Indentation.INVISIBLE, false,
+				DoubleFormat.SHORTEST, 0);
+	}
+
+}
@@ -0,0 +1,162 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class RopeJsonTextJsonHandlerTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new RopeJsonTextJsonHandler(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveChunkSize() {
+
+		new RopeJsonTextJsonHandler(Indentation.INVISIBLE, 0, false);
+
+	}
+
+	@Test
+	public void onDocument_complex() {
+
+		JsonHandler<CharacterRope> handler = new RopeJsonTextJsonHandler(Indentation.INVISIBLE, 4, false);
+
+		CharacterRope rope = produceComplexDocument(handler);
+
+		Assert.assertEquals("{\"a\":null,\"b\":[\"ä€\",42,true]}", rope.toString());
+		Assert.assertEquals(29, rope.getLength());
+		Assert.assertEquals(29, rope.length());
+		Assert.assertEquals('{', rope.charAt(0));
+		Assert.assertEquals('€', rope.charAt(17));
+		Assert.assertEquals("\"b\":", rope.subSequence(10, 14));
+
+	}
+
+	@Test
+	public void onDocument_complexDirect() {
+
+		JsonHandler<CharacterRope> handler = new RopeJsonTextJsonHandler(Indentation.INVISIBLE, 4, true);
+
+		CharacterRope rope = produceComplexDocument(handler);
+
+		Assert.assertTrue(rope.isDirect());
+		Assert.assertEquals("{\"a\":null,\"b\":[\"ä€\",42,true]}", rope.toString());
+
+	}
+
+	@Test
+	public void writeTo_writer() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		CharacterRope rope = produceComplexDocument(new RopeJsonTextJsonHandler(Indentation.INVISIBLE, 4, true));
+
+		rope.writeTo(writer);
+
+		Assert.assertEquals("{\"a\":null,\"b\":[\"ä€\",42,true]}", writer.toString());
+
+	}
+
+	@Test
+	public void writeTo_outputStream() throws IOException {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		CharacterRope rope = produceComplexDocument(new RopeJsonTextJsonHandler(Indentation.INVISIBLE, 4, false));
+
+		rope.writeTo(outputStream);
+
+		Assert.assertEquals("{\"a\":null,\"b\":[\"ä€\",42,true]}", outputStream.toString("UTF-8"));
+
+	}
+
+	@Test
+	public void append_acrossChunks() {
+
+		CharacterRope rope = new CharacterRope(3, false);
+
+		rope.append("abcdefg");
+		rope.append(new StringBuilder("hij"), 1, 3);
+		rope.append('k');
+
+		Assert.assertEquals("abcdefgijk", rope.toString());
+		Assert.assertEquals('i', rope.charAt(7L));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_tooLargeChunkSize() {
+
+		new CharacterRope(CharacterRope.MAXIMUM_CHUNK_SIZE + 1, true);
+
+	}
+
+	@Test
+	public void append_bulk() {
+
+		for (boolean direct : new boolean[] { false, true }) {
+			CharacterRope rope = new CharacterRope(3, direct);
+			CharBuffer buffer = CharBuffer.wrap("xxabcdefgxx".toCharArray());
+			buffer.position(1);
+
+			rope.append("0123", 1, 3);
+			rope.append(buffer, 1, 8);
+			rope.append(new StringBuilder("hijk"), 0, 4);
+			rope.append(new StringBuffer("lmn"), 1, 3);
+
+			Assert.assertEquals("12abcdefghijkmn", rope.toString());
+		}
+
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void append_outOfBounds() {
+
+		new CharacterRope().append("abc", 2, 4);
+
+	}
+
+		@Test(expected = IndexOutOfBoundsException.class)
+	public void charAt_outOfBounds() {
+
+		CharacterRope rope = new CharacterRope();
+
+		rope.append("abc");
+
+		rope.charAt(3);
+
+	}
+
+	private static CharacterRope produceComplexDocument(JsonHandler<CharacterRope> handler) {
+
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("a");
+		handler.onNull();
+		handler.onNext();
+		handler.onName("b");
+		handler.onArrayBegin();
+		handler.onString("ä€");
+		handler.onNext();
+		handler.onLong(42);
+		handler.onNext();
+		handler.onBoolean(true);
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+
+		return handler.getResult();
+
+	}
+
+}
@@ -0,0 +1,86 @@
+package net.markenwerk.utils.json.common.handler.text;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.markenwerk.utils.json.handler.JsonHandler;
+import net.markenwerk.utils.text.indentation.Indentation;
+
+@SuppressWarnings("javadoc")
+public class TextSizeJsonHandlerTests {
+
+	@Test
+	public void countingAppendable_surrogates() throws Exception {
+
+		CountingAppendable appendable = new CountingAppendable();
+		appendable.append("aä€😀");
+		appendable.append('\uDC00');
+		appendable.append('\uD83D');
+
+		Assert.assertEquals(7, appendable.getCharacterCount());
+		Assert.assertEquals(1 + 2 + 3 + 4 + 1 + 1, appendable.getByteCount());
+
+	}
+
+	@Test
+	public void jsonText_size() throws Exception {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler();
+		JsonTextSizeJsonHandler sizeHandler = new JsonTextSizeJsonHandler();
+
+		render(handler);
+		render(sizeHandler);
+
+		Assert.assertEquals(sizeOf(handler.getResult()), sizeHandler.getResult());
+
+	}
+
+	@Test
+	public void jsonText_sizeAsciiSafe() throws Exception {
+
+		JsonTextJsonHandler handler = new JsonTextJsonHandler(Indentation.INVISIBLE, true);
+		JsonTextSizeJsonHandler sizeHandler = new JsonTextSizeJsonHandler(Indentation.INVISIBLE, true);
+
+		render(handler);
+		render(sizeHandler);
+
+		Assert.assertEquals(sizeOf(handler.getResult()), sizeHandler.getResult());
+
+	}
+
+	@Test
+	public void javaText_size() throws Exception {
+
+		JavaTextJsonHandler handler = new JavaTextJsonHandler();
+		JavaTextSizeJsonHandler sizeHandler = new JavaTextSizeJsonHandler();
+
+		render(handler);
+		render(sizeHandler);
+
+		Assert.assertEquals(sizeOf(handler.getResult()), sizeHandler.getResult());
+
+	}
+
+	private static TextSize sizeOf(String text) throws Exception {
+		return new TextSize(text.length(), text.getBytes("UTF-8").length);
+	}
+
+	private static void render(JsonHandler<?> handler) {
+		handler.onDocumentBegin();
+		handler.onObjectBegin();
+		handler.onName("föö");
+		handler.onString("bär \"€\" 😀\n");
+		handler.onNext();
+		handler.onName("baz");
+		handler.onArrayBegin();
+		handler.onLong(-42);
+		handler.onNext();
+		handler.onDouble(23.42);
+		handler.onNext();
+		handler.onNull();
+		handler.onArrayEnd();
+		handler.onObjectEnd();
+		handler.onDocumentEnd();
+	}
+
+}